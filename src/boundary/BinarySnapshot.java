@@ -0,0 +1,432 @@
+package boundary;
+
+import controller_class.IDataRepo;
+import entity_class.*;
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Versioned binary snapshot of the whole repository, stored column by column.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   magic "IPMS", format version
+ *   enum dictionaries   one list of constant names per enum type
+ *   string table        every distinct string once, length-prefixed UTF-8
+ *   sections            students, staff, reps, internships, applications,
+ *                       withdrawals; each is a row count followed by one
+ *                       array per column
+ * </pre>
+ * Strings are indexes into the string table (-1 for null), enums are
+ * ordinals into the dictionary written with the file, sets of enum
+ * constants are bitmasks over the same ordinals, dates are epoch days,
+ * and references between entities are row indexes into the referenced
+ * section (-1 for none). Because each file carries its own enum names,
+ * reordering an enum does not invalidate older snapshots.
+ */
+public class BinarySnapshot {
+    private static final int MAGIC = 0x49504D53; // "IPMS"
+    private static final int VERSION = 2; // 2: preferred majors as one mask per row
+
+    /** Entities read from a snapshot, already linked to each other */
+    public static final class Contents {
+        public final List<User> users = new ArrayList<>();
+        public final List<Internship> internships = new ArrayList<>();
+        public final List<Application> applications = new ArrayList<>();
+        public final List<WithdrawalRequest> withdrawals = new ArrayList<>();
+        public int withdrawalErrors; // withdrawals skipped because their application or student was not saved
+    }
+
+    /**
+     * Encodes the repository. Other sessions may keep writing meanwhile: each
+     * entity list is copied separately, parents before children, and an
+     * application whose student or internship was added after that list was
+     * copied is left out. It is still marked changed, so the next save has it.
+     * @param repo repository to encode
+     * @param passwords passwords by user ID
+     * @param emails student emails by user ID
+     * @return the encoded snapshot
+     */
+    public static byte[] encode(IDataRepo repo, Map<String, String> passwords, Map<String, String> emails) {
+        List<Student> students = new ArrayList<>(repo.students());
+        List<CareerStaff> staff = new ArrayList<>(repo.careerStaff());
+        List<CompanyRep> reps = new ArrayList<>(repo.companyReps());
+        List<Internship> internships = repo.getAllInternships();
+        List<Application> applications = repo.getAllApplications();
+        List<WithdrawalRequest> withdrawals = repo.getAllWithdrawals();
+
+        Map<Object, Integer> rowOf = new IdentityHashMap<>();
+        indexRows(rowOf, students);
+        indexRows(rowOf, reps);
+        indexRows(rowOf, internships);
+        applications.removeIf(a -> !rowOf.containsKey(a.getStudent()) || !rowOf.containsKey(a.getInternship()));
+        indexRows(rowOf, applications);
+
+        Strings strings = new Strings();
+        ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+        try (DataOutputStream body = new DataOutputStream(bodyBytes)) {
+            body.writeInt(students.size());
+            for (Student s : students) body.writeInt(strings.ref(s.getUserID()));
+            for (Student s : students) body.writeInt(strings.ref(passwords.get(s.getUserID())));
+            for (Student s : students) body.writeInt(strings.ref(s.getName()));
+            for (Student s : students) body.writeByte(s.getMajor().ordinal());
+            for (Student s : students) body.writeInt(s.getYearOfStudy());
+            for (Student s : students) body.writeInt(strings.ref(emails.get(s.getUserID())));
+
+            body.writeInt(staff.size());
+            for (CareerStaff c : staff) body.writeInt(strings.ref(c.getUserID()));
+            for (CareerStaff c : staff) body.writeInt(strings.ref(passwords.get(c.getUserID())));
+            for (CareerStaff c : staff) body.writeInt(strings.ref(c.getName()));
+            for (CareerStaff c : staff) body.writeInt(strings.ref(c.getDepartment()));
+
+            body.writeInt(reps.size());
+            for (CompanyRep r : reps) body.writeInt(strings.ref(r.getUserID()));
+            for (CompanyRep r : reps) body.writeInt(strings.ref(passwords.get(r.getUserID())));
+            for (CompanyRep r : reps) body.writeInt(strings.ref(r.getName()));
+            for (CompanyRep r : reps) body.writeInt(strings.ref(r.getCompanyName()));
+            for (CompanyRep r : reps) body.writeInt(strings.ref(r.getDepartment()));
+            for (CompanyRep r : reps) body.writeInt(strings.ref(r.getPosition()));
+            for (CompanyRep r : reps) body.writeBoolean(r.isApproved());
+
+            body.writeInt(internships.size());
+            for (Internship i : internships) body.writeInt(strings.ref(i.getInternshipID()));
+            for (Internship i : internships) body.writeInt(strings.ref(i.getTitle()));
+            for (Internship i : internships) body.writeInt(strings.ref(i.getDescription()));
+            for (Internship i : internships) body.writeByte(i.getLevel().ordinal());
+            for (Internship i : internships) body.writeInt(i.getPreferredMajorMask());
+            for (Internship i : internships) body.writeInt(i.getOpenDay());
+            for (Internship i : internships) body.writeInt(i.getCloseDay());
+            for (Internship i : internships) body.writeInt(strings.ref(i.getCompanyName()));
+            for (Internship i : internships) body.writeInt(rowOf.getOrDefault(i.getCompanyRepresentative(), -1));
+            for (Internship i : internships) body.writeByte(i.getStatus().ordinal());
+            for (Internship i : internships) body.writeByte(i.getNumberOfSlots());
+            for (Internship i : internships) body.writeBoolean(i.isVisible());
+
+            body.writeInt(applications.size());
+            for (Application a : applications) body.writeInt(strings.ref(a.getApplicationID()));
+            for (Application a : applications) body.writeInt(rowOf.get(a.getStudent()));
+            for (Application a : applications) body.writeInt(rowOf.get(a.getInternship()));
+            for (Application a : applications) body.writeByte(a.getStatus().ordinal());
+            for (Application a : applications) body.writeBoolean(a.isAccepted());
+
+            body.writeInt(withdrawals.size());
+            for (WithdrawalRequest w : withdrawals) body.writeInt(strings.ref(w.getRequestID()));
+            for (WithdrawalRequest w : withdrawals) body.writeInt(rowOf.getOrDefault(w.getApplication(), -1));
+            for (WithdrawalRequest w : withdrawals) body.writeInt(rowOf.getOrDefault(w.getStudent(), -1));
+            for (WithdrawalRequest w : withdrawals) body.writeInt((int) w.getRequestDate().toLocalDate().toEpochDay());
+            for (WithdrawalRequest w : withdrawals) body.writeLong(w.getRequestDate().toLocalTime().toNanoOfDay());
+            for (WithdrawalRequest w : withdrawals) body.writeByte(w.getStatus().ordinal());
+
+            ByteArrayOutputStream fileBytes = new ByteArrayOutputStream(bodyBytes.size() + strings.bytes + 1024);
+            try (DataOutputStream out = new DataOutputStream(fileBytes)) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeDictionary(out, Types.Major.values());
+                writeDictionary(out, Types.InternshipLevel.values());
+                writeDictionary(out, Types.InternshipStatus.values());
+                writeDictionary(out, Types.ApplicationStatus.values());
+                writeDictionary(out, Types.WithdrawalStatus.values());
+                out.writeInt(strings.list.size());
+                for (byte[] s : strings.list) {
+                    out.writeInt(s.length);
+                    out.write(s);
+                }
+                bodyBytes.writeTo(out);
+            }
+            return fileBytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory streams do not throw
+        }
+    }
+
+    /**
+     * Decodes a snapshot into linked entities without touching any repository.
+     * @param in the snapshot bytes, read from the buffer's position
+     * @param passwords receives passwords by user ID
+     * @param emails receives student emails by user ID
+     * @return the decoded entities
+     * @throws IOException if the data is not a snapshot of a supported version
+     */
+    public static Contents decode(ByteBuffer in, Map<String, String> passwords, Map<String, String> emails)
+            throws IOException {
+        Contents contents = new Contents();
+        try {
+            if (in.getInt() != MAGIC) throw new IOException("not a snapshot file");
+            int version = in.getInt();
+            if (version < 1 || version > VERSION) throw new IOException("unsupported snapshot version " + version);
+            Types.Major[] majors = readDictionary(in, Types.Major.values());
+            Types.InternshipLevel[] levels = readDictionary(in, Types.InternshipLevel.values());
+            Types.InternshipStatus[] internshipStatuses = readDictionary(in, Types.InternshipStatus.values());
+            Types.ApplicationStatus[] applicationStatuses = readDictionary(in, Types.ApplicationStatus.values());
+            Types.WithdrawalStatus[] withdrawalStatuses = readDictionary(in, Types.WithdrawalStatus.values());
+
+            String[] strings = new String[in.getInt()];
+            for (int k = 0; k < strings.length; k++) {
+                strings[k] = readString(in, in.getInt());
+            }
+
+            // students
+            int n = in.getInt();
+            String[] ids = readStrings(in, strings, n);
+            String[] pw = readStrings(in, strings, n);
+            String[] names = readStrings(in, strings, n);
+            byte[] studentMajors = readBytes(in, n);
+            int[] years = readInts(in, n);
+            String[] mails = readStrings(in, strings, n);
+            Student[] students = new Student[n];
+            for (int k = 0; k < n; k++) {
+                students[k] = new Student(ids[k], names[k], years[k], lookup(majors, studentMajors[k]), pw[k]);
+                remember(passwords, ids[k], pw[k]);
+                remember(emails, ids[k], mails[k]);
+                contents.users.add(students[k]);
+            }
+
+            // staff
+            n = in.getInt();
+            ids = readStrings(in, strings, n);
+            pw = readStrings(in, strings, n);
+            names = readStrings(in, strings, n);
+            String[] departments = readStrings(in, strings, n);
+            for (int k = 0; k < n; k++) {
+                contents.users.add(new CareerStaff(ids[k], names[k], departments[k], pw[k]));
+                remember(passwords, ids[k], pw[k]);
+            }
+
+            // company reps
+            n = in.getInt();
+            ids = readStrings(in, strings, n);
+            pw = readStrings(in, strings, n);
+            names = readStrings(in, strings, n);
+            String[] companies = readStrings(in, strings, n);
+            departments = readStrings(in, strings, n);
+            String[] positions = readStrings(in, strings, n);
+            byte[] approved = readBytes(in, n);
+            CompanyRep[] reps = new CompanyRep[n];
+            for (int k = 0; k < n; k++) {
+                reps[k] = new CompanyRep(ids[k], names[k], companies[k], departments[k], positions[k], pw[k]);
+                reps[k].setApproved(approved[k] != 0);
+                remember(passwords, ids[k], pw[k]);
+                contents.users.add(reps[k]);
+            }
+
+            // internships
+            n = in.getInt();
+            ids = readStrings(in, strings, n);
+            String[] titles = readStrings(in, strings, n);
+            String[] descriptions = readStrings(in, strings, n);
+            byte[] levelCol = readBytes(in, n);
+            int[] majorMasks = version >= 2 ? readMasks(in, n, majors) : readMajorLists(in, n, majors);
+            int[] openDays = readInts(in, n);
+            int[] closeDays = readInts(in, n);
+            companies = readStrings(in, strings, n);
+            int[] repRows = readInts(in, n);
+            byte[] statusCol = readBytes(in, n);
+            byte[] slots = readBytes(in, n);
+            byte[] visible = readBytes(in, n);
+            Internship[] internships = new Internship[n];
+            for (int k = 0; k < n; k++) {
+                Internship i = new Internship(ids[k]);
+                i.setTitle(titles[k]);
+                i.setDescription(descriptions[k]);
+                i.setLevel(lookup(levels, levelCol[k]));
+                i.setPreferredMajorMask(majorMasks[k]);
+                i.setOpenDay(openDays[k]);
+                i.setCloseDay(closeDays[k]);
+                i.setCompanyName(companies[k]);
+                i.setStatus(lookup(internshipStatuses, statusCol[k]));
+                i.setNumberOfSlots(slots[k]);
+                i.setVisible(visible[k] != 0);
+                if (repRows[k] >= 0) {
+                    CompanyRep rep = row(reps, repRows[k]);
+                    i.setCompanyRepresentative(rep);
+                    rep.addCreatedInternship(i);
+                }
+                internships[k] = i;
+                contents.internships.add(i);
+            }
+
+            // applications
+            n = in.getInt();
+            ids = readStrings(in, strings, n);
+            int[] studentRows = readInts(in, n);
+            int[] internshipRows = readInts(in, n);
+            statusCol = readBytes(in, n);
+            byte[] accepted = readBytes(in, n);
+            Application[] applications = new Application[n];
+            for (int k = 0; k < n; k++) {
+                Student student = row(students, studentRows[k]);
+                Internship internship = row(internships, internshipRows[k]);
+                Application app = new Application(ids[k], internship, student);
+                app.updateStatus(lookup(applicationStatuses, statusCol[k]));
+                app.setAccepted(accepted[k] != 0);
+                student.addApplication(app);
+                internship.addApplication(app);
+                if (app.isAccepted()) {
+                    student.setAcceptedInternship(app);
+                    internship.linkIntern(student);
+                }
+                applications[k] = app;
+                contents.applications.add(app);
+            }
+
+            // withdrawals
+            n = in.getInt();
+            ids = readStrings(in, strings, n);
+            int[] applicationRows = readInts(in, n);
+            studentRows = readInts(in, n);
+            int[] days = readInts(in, n);
+            long[] nanos = new long[n];
+            in.asLongBuffer().get(nanos);
+            in.position(in.position() + n * Long.BYTES);
+            statusCol = readBytes(in, n);
+            for (int k = 0; k < n; k++) {
+                if (applicationRows[k] < 0 || studentRows[k] < 0) { // reference was not saved
+                    System.err.println((applicationRows[k] < 0 ? "Application" : "Student") +
+                            " of withdrawal " + ids[k] + " not found");
+                    contents.withdrawalErrors++;
+                    continue;
+                }
+                WithdrawalRequest wr = new WithdrawalRequest(row(students, studentRows[k]),
+                        row(applications, applicationRows[k]));
+                wr.setRequestID(ids[k]);
+                wr.setRequestDate(LocalDateTime.of(LocalDate.ofEpochDay(days[k]),
+                        LocalTime.ofNanoOfDay(nanos[k])));
+                wr.setStatus(lookup(withdrawalStatuses, statusCol[k]));
+                contents.withdrawals.add(wr);
+            }
+            if (in.hasRemaining()) throw new IOException("unexpected data after last section");
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("snapshot is truncated or corrupt", e);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new IOException("invalid snapshot record: " + e.getMessage(), e);
+        }
+        return contents;
+    }
+
+    /** Deduplicating string table built while encoding */
+    private static final class Strings {
+        final Map<String, Integer> index = new HashMap<>();
+        final List<byte[]> list = new ArrayList<>();
+        int bytes;
+
+        int ref(String s) {
+            if (s == null) return -1;
+            return index.computeIfAbsent(s, k -> {
+                byte[] utf8 = k.getBytes(StandardCharsets.UTF_8);
+                list.add(utf8);
+                bytes += utf8.length + 4;
+                return list.size() - 1;
+            });
+        }
+    }
+
+    private static void indexRows(Map<Object, Integer> rowOf, List<?> rows) {
+        for (int k = 0; k < rows.size(); k++) rowOf.put(rows.get(k), k);
+    }
+
+    private static void writeDictionary(DataOutputStream out, Enum<?>[] values) throws IOException {
+        out.writeByte(values.length);
+        for (Enum<?> e : values) out.writeUTF(e.name());
+    }
+
+    /** Map the ordinals used in the file to the current enum constants */
+    private static <E extends Enum<E>> E[] readDictionary(ByteBuffer in, E[] values) throws IOException {
+        int count = in.get() & 0xff;
+        E[] result = Arrays.copyOf(values, count);
+        for (int k = 0; k < count; k++) {
+            String name = readString(in, in.getShort() & 0xffff); // writeUTF form; names are ASCII
+            E match = null;
+            for (E e : values) {
+                if (e.name().equals(name)) match = e;
+            }
+            if (match == null) {
+                throw new IOException("unknown " + values.getClass().getComponentType().getSimpleName() +
+                        " constant " + name);
+            }
+            result[k] = match;
+        }
+        return result;
+    }
+
+    /** Reads one major mask per row, re-based from the file's dictionary onto {@link Types.Major} */
+    private static int[] readMasks(ByteBuffer in, int n, Types.Major[] majors) throws IOException {
+        int[] masks = readInts(in, n);
+        boolean sameOrder = true;
+        for (int k = 0; k < majors.length; k++) sameOrder &= majors[k].ordinal() == k;
+        for (int r = 0; r < n; r++) {
+            if (majors.length < Integer.SIZE && masks[r] >>> majors.length != 0) {
+                throw new IOException("major mask " + Integer.toHexString(masks[r]) + " out of range");
+            }
+            if (sameOrder) continue;
+            int mask = 0;
+            for (int bits = masks[r]; bits != 0; bits &= bits - 1) {
+                mask |= Internship.majorBit(majors[Integer.numberOfTrailingZeros(bits)]);
+            }
+            masks[r] = mask;
+        }
+        return masks;
+    }
+
+    /** Reads the version 1 layout: a major count per row, then every row's ordinals */
+    private static int[] readMajorLists(ByteBuffer in, int n, Types.Major[] majors) throws IOException {
+        byte[] counts = readBytes(in, n);
+        int total = 0;
+        for (byte c : counts) total += c & 0xff;
+        byte[] ordinals = readBytes(in, total);
+        int[] masks = new int[n];
+        int next = 0;
+        for (int r = 0; r < n; r++) {
+            for (int m = 0; m < (counts[r] & 0xff); m++) {
+                masks[r] |= Internship.majorBit(lookup(majors, ordinals[next++]));
+            }
+        }
+        return masks;
+    }
+
+    private static <E> E lookup(E[] dictionary, byte ordinal) throws IOException {
+        return row(dictionary, ordinal & 0xff);
+    }
+
+    private static <T> T row(T[] rows, int index) throws IOException {
+        if (index < 0 || index >= rows.length) throw new IOException("reference " + index + " out of range");
+        return rows[index];
+    }
+
+    private static void remember(Map<String, String> map, String key, String value) {
+        if (value != null) map.put(key, value);
+    }
+
+    private static String readString(ByteBuffer in, int length) {
+        String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return s;
+    }
+
+    private static String[] readStrings(ByteBuffer in, String[] table, int n) throws IOException {
+        String[] result = new String[n];
+        for (int k = 0; k < n; k++) {
+            int ref = in.getInt();
+            result[k] = ref < 0 ? null : row(table, ref);
+        }
+        return result;
+    }
+
+    private static int[] readInts(ByteBuffer in, int n) {
+        int[] result = new int[n];
+        in.asIntBuffer().get(result);
+        in.position(in.position() + n * Integer.BYTES);
+        return result;
+    }
+
+    private static byte[] readBytes(ByteBuffer in, int n) {
+        byte[] result = new byte[n];
+        in.get(result);
+        return result;
+    }
+}
@@ -22,6 +22,7 @@ public class CareerStaffUI {
     private Date filterClosingDate = null;
     private Types.InternshipStatus filterStatus = null;
     private String filterCompany = null;
+    private String filterKeywords = null;
 
 
     /**
@@ -325,6 +326,7 @@ public class CareerStaffUI {
                         : new java.text.SimpleDateFormat("yyyy-MM-dd").format(filterClosingDate)));
         System.out.println("   Status: " + (filterStatus == null ? "Any" : filterStatus));
         System.out.println("   Company: " + (filterCompany == null ? "Any" : filterCompany));
+        System.out.println("   Keywords: " + (filterKeywords == null ? "Any" : filterKeywords));
 
         // Ask if user wants to change filters
         System.out.print("Would you like to update filters? (yes/no): ");
@@ -402,41 +404,23 @@ public class CareerStaffUI {
             } else {
                 filterCompany = companyStr;
             }
-        }
-
-        // Apply filters
-        List<Internship> filtered = new ArrayList<>();
-        for (Internship intern : allInternships) {
-
-            // Majors (at least one overlap)
-            if (filterMajors != null && !filterMajors.isEmpty()) {
-                boolean matchesMajor = false;
-                for (Types.Major major : filterMajors) {
-                    if (intern.getPreferredMajor().contains(major)) {
-                        matchesMajor = true;
-                        break;
-                    }
-                }
-                if (!matchesMajor) continue;
-            }
-
-            // Level 
-            if (filterLevel != null && intern.getLevel() != filterLevel) continue;
 
-            // Closing date 
-            if (filterClosingDate != null && !intern.getCloseDate().equals(filterClosingDate)) continue;
-            
-            // Status filter
-            if (filterStatus != null && intern.getStatus() != filterStatus) continue;
-
-            // Company filter
-            if (filterCompany != null && !intern.getCompanyName().toLowerCase().contains(filterCompany.toLowerCase())) continue;
-
-            filtered.add(intern);
+            // Keyword filter (ranked search over title, description and company)
+            System.out.print("Filter by keywords (use word* for prefixes, Enter for any): ");
+            String keywordStr = scanner.nextLine().trim();
+            filterKeywords = keywordStr.isEmpty() ? null : keywordStr;
         }
 
-        // Default ordering: alphabetical by internship title (case-insensitive)
-        filtered.sort((a, b) -> a.getTitle().compareToIgnoreCase(b.getTitle()));
+        // Apply filters; keyword results stay ranked, otherwise alphabetical by
+        // internship title (case-insensitive)
+        List<Internship> filtered = controller.findInternships(new InternshipQuery()
+                .majors(filterMajors)
+                .level(filterLevel)
+                .closesOn(filterClosingDate)
+                .status(filterStatus)
+                .companyContains(filterCompany)
+                .keywords(filterKeywords)
+                .sortBy(filterKeywords == null ? InternshipQuery.Sort.TITLE : InternshipQuery.Sort.NONE));
 
         if (filtered.isEmpty()) {
             System.out.println("No internships match the current filters.");
@@ -460,39 +444,42 @@ public class CareerStaffUI {
     private void viewStatistics() {
         DataRepo repo = DataRepo.getInstance();
 
-        // Count users by type
-        long students = repo.getAllUsers().stream().filter(u -> u instanceof Student).count();
-        long companyReps = repo.getAllUsers().stream().filter(u -> u instanceof CompanyRep).count();
-        long staff = repo.getAllUsers().stream().filter(u -> u instanceof CareerStaff).count();
-        long approvedReps = repo.getAllUsers().stream()
-                .filter(u -> u instanceof CompanyRep && ((CompanyRep) u).isApproved()).count();
-
-        // Count internships by status
-        List<Internship> allInternships = repo.getAllInternships();
-        long pending = allInternships.stream()
-                .filter(i -> i.getStatus() == Types.InternshipStatus.PENDING).count();
-        long approved = allInternships.stream()
-                .filter(i -> i.getStatus() == Types.InternshipStatus.APPROVED).count();
-        long rejected = allInternships.stream()
-                .filter(i -> i.getStatus() == Types.InternshipStatus.REJECTED).count();
-        long filled = allInternships.stream()
-                .filter(i -> i.getStatus() == Types.InternshipStatus.FILLED).count();
+        // One snapshot, so every figure below comes from the same moment
+        RepoSnapshot snapshot = controller.getSnapshot();
+        int students = snapshot.getStudentCount();
+        int companyReps = snapshot.getCompanyRepCount();
+        int staff = snapshot.getCareerStaffCount();
+        int approvedReps = snapshot.getApprovedCompanyRepCount();
+
+        int pending = snapshot.countInternships(Types.InternshipStatus.PENDING);
+        int approved = snapshot.countInternships(Types.InternshipStatus.APPROVED);
+        int rejected = snapshot.countInternships(Types.InternshipStatus.REJECTED);
+        int filled = snapshot.countInternships(Types.InternshipStatus.FILLED);
 
         System.out.println("USERS:");
         System.out.println("  Students: " + students);
         System.out.println("  Company Representatives: " + companyReps + " (Approved: " + approvedReps + ")");
         System.out.println("  Career Center Staff: " + staff);
-        System.out.println("  Total Users: " + repo.getAllUsers().size());
+        System.out.println("  Total Users: " + snapshot.getUserCount());
 
         System.out.println("\nINTERNSHIPS:");
         System.out.println("  Pending Approval: " + pending);
         System.out.println("  Approved: " + approved);
         System.out.println("  Rejected: " + rejected);
         System.out.println("  Filled: " + filled);
-        System.out.println("  Total: " + allInternships.size());
+        System.out.println("  Total: " + snapshot.getInternships().size());
 
         System.out.println("\nWITHDRAWAL REQUESTS:");
-        System.out.println("  Pending: " + controller.getPendingWithdrawals().size());
+        System.out.println("  Pending: " + snapshot.countWithdrawals(Types.WithdrawalStatus.PENDING));
+        System.out.println("  Approved: " + snapshot.countWithdrawals(Types.WithdrawalStatus.APPROVED));
+        System.out.println("  Rejected: " + snapshot.countWithdrawals(Types.WithdrawalStatus.REJECTED));
+
+        CacheStats cache = repo.getQueryCacheStats();
+        System.out.println("\nLISTING CACHE:");
+        System.out.println("  Hits: " + cache.getHits() + ", Misses: " + cache.getMisses() +
+                String.format(" (hit rate %.1f%%)", cache.getHitRate() * 100));
+        System.out.println("  Entries: " + cache.getSize() + " of " + cache.getCapacity() +
+                ", Evicted: " + cache.getEvictions());
     }
 
     /** Generate internship report with filters */
@@ -527,11 +514,9 @@ public class CareerStaffUI {
 
             String path = REPORTS_DIR + filename;
 
-            // Get filtered internships using controller method
-            List<Internship> internships = controller.getFilteredInternships(
-                    major != null ? List.of(major) : null,
-                    null, level, null, null, status
-            );
+            // Read a pinned snapshot, so the report stays consistent however long writing takes
+            RepoSnapshot snapshot = controller.getSnapshot();
+            List<InternshipRecord> internships = snapshot.findInternships(major, level, status);
 
             // Save to file
             try (PrintWriter writer = new PrintWriter(new FileWriter(path))) {
@@ -548,7 +533,7 @@ public class CareerStaffUI {
 
                 writer.println("***********************************************************");
                 writer.println();
-                for (Internship i : internships) {
+                for (InternshipRecord i : internships) {
                     writer.println(i.getInternshipID() + " | " + i.getCompanyName() + " | " +
                             i.getTitle() + " | " + i.getStatus() + " | " + i.getLevel() +
                             " | Slots: " + i.getConfirmedSlots() + "/" + i.getNumberOfSlots());
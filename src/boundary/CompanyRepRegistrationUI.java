@@ -1,7 +1,6 @@
 package boundary;
 
 import controller_class.IDataRepo;
-import boundary.IFileHandler;
 import entity_class.CompanyRep;
 import java.util.Scanner;
 
@@ -9,23 +8,23 @@ import java.util.Scanner;
  * Handles registration of new company representatives. This class is
  * responsible for gathering registration details from the user, creating
  * a new {@link CompanyRep} instance, adding it to the repository, and
- * saving the updated data via the {@link IFileHandler}. Splitting
+ * saving the updated data via the {@link PersistenceWorker}. Splitting
  * registration into its own UI class keeps {@link LoginUI} focused
  * solely on authentication and adheres to the Single Responsibility
  * Principle (SRP).
  */
 public class CompanyRepRegistrationUI {
     private final IDataRepo repo;
-    private final IFileHandler fileHandler;
+    private final PersistenceWorker persistence;
 
     /**
      * Constructs a new registration UI.
      * @param repo the data repository abstraction used to store new users
-     * @param fileHandler the file handler used to persist changes
+     * @param persistence the background worker used to persist changes
      */
-    public CompanyRepRegistrationUI(IDataRepo repo, IFileHandler fileHandler) {
+    public CompanyRepRegistrationUI(IDataRepo repo, PersistenceWorker persistence) {
         this.repo = repo;
-        this.fileHandler = fileHandler;
+        this.persistence = persistence;
     }
 
     /**
@@ -56,7 +55,7 @@ public class CompanyRepRegistrationUI {
             CompanyRep newRep = new CompanyRep(email, name, companyName, department, position);
             // Add to repository and save immediately
             repo.addUser(newRep);
-            fileHandler.saveAllData(repo);
+            persistence.requestSave();
             System.out.println("Registration successful. " +
                     "Account is pending approval by Staff. " +
                     "You can log in once approved.");
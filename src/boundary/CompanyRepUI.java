@@ -255,36 +255,13 @@ public class CompanyRepUI {
             }
         }
 
-        // Apply filters
-        List<Internship> filtered = new ArrayList<>();
-        for (Internship intern : internships) {
-
-            // Majors (at least one overlap)
-            if (filterMajors != null && !filterMajors.isEmpty()) {
-                boolean matchesMajor = false;
-                for (Types.Major major : filterMajors) {
-                    if (intern.getPreferredMajor().contains(major)) {
-                        matchesMajor = true;
-                        break;
-                    }
-                }
-                if (!matchesMajor) continue;
-            }
-
-            // Level 
-            if (filterLevel != null && intern.getLevel() != filterLevel) continue;
-
-            // Closing date 
-            if (filterClosingDate != null && !intern.getCloseDate().equals(filterClosingDate)) continue;
-            
-            // Status filter
-            if (filterStatus != null && intern.getStatus() != filterStatus) continue;
-
-            filtered.add(intern);
-        }
-
-        // Default ordering: alphabetical by internship title (case-insensitive)
-        filtered.sort((a, b) -> a.getTitle().compareToIgnoreCase(b.getTitle()));
+        // Apply filters, alphabetical by internship title (case-insensitive)
+        List<Internship> filtered = controller.viewInternships(currentRep, new InternshipQuery()
+                .majors(filterMajors)
+                .level(filterLevel)
+                .closesOn(filterClosingDate)
+                .status(filterStatus)
+                .sortBy(InternshipQuery.Sort.TITLE));
 
         if (filtered.isEmpty()) {
             System.out.println("No internships match the current filters.");
@@ -305,10 +282,8 @@ public class CompanyRepUI {
 
             System.out.println("Total internships filtered: " + filtered.size());
             int totalCreated = currentRep.getCreatedInternships().size();
-            long rejectedCount = currentRep.getCreatedInternships().stream()
-                    .filter(i -> i.getStatus() == Types.InternshipStatus.REJECTED)
-                    .count();
-            int activeCount = totalCreated - (int) rejectedCount;
+            int activeCount = currentRep.getActiveInternshipCount();
+            int rejectedCount = totalCreated - activeCount;
 
             System.out.println("Total created: " + totalCreated +
                     " (Rejected: " + rejectedCount + ", Active: " + activeCount + "/" +
@@ -322,9 +297,7 @@ public class CompanyRepUI {
         String internshipID = scanner.nextLine().trim();
 
         try {
-            Internship internship = currentRep.getCreatedInternships().stream()
-                    .filter(i -> i.getInternshipID().equals(internshipID))
-                    .findFirst()
+            Internship internship = Optional.ofNullable(currentRep.findInternshipByID(internshipID))
                     .orElseThrow(() -> new IllegalArgumentException("Internship not found or not owned by you"));
 
             System.out.printf("""
@@ -405,9 +378,7 @@ public class CompanyRepUI {
 
     /** Add preferred major to an internship */
     private void addMajor(String internshipID) {
-        Internship internship = currentRep.getCreatedInternships().stream()
-                .filter(i -> i.getInternshipID().equals(internshipID))
-                .findFirst()
+        Internship internship = Optional.ofNullable(currentRep.findInternshipByID(internshipID))
                 .orElseThrow(() -> new IllegalArgumentException("Internship not found"));
 
         System.out.println("Available majors: CCDS, COE, NBS, SPMS, SBS, WKWSCI, COHASS");
@@ -440,9 +411,7 @@ public class CompanyRepUI {
     /** Remove preferred major from an internship */
     private void removeMajor(String internshipID) {
         try {
-            Internship internship = currentRep.getCreatedInternships().stream()
-                    .filter(i -> i.getInternshipID().equals(internshipID))
-                    .findFirst()
+            Internship internship = Optional.ofNullable(currentRep.findInternshipByID(internshipID))
                     .orElseThrow(() -> new IllegalArgumentException("Internship not found"));
 
             if (internship.getPreferredMajor().isEmpty()) {
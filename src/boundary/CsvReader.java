@@ -0,0 +1,439 @@
+package boundary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Streaming, record-at-a-time CSV reader built on NIO channels.
+ *
+ * Bytes are pulled from a {@link ReadableByteChannel} (or a fixed
+ * {@link ByteBuffer}) into a reusable record buffer, and each field is
+ * exposed as a slice of that buffer. Callers read fields with the typed
+ * accessors ({@link #getInt}, {@link #getEnum}, {@link #getEpochDay}, ...)
+ * which parse straight from the bytes, so only fields that end up stored
+ * in an entity are turned into {@code String}s.
+ *
+ * Quoting follows RFC 4180: a field wrapped in double quotes may contain
+ * commas, line breaks and doubled quotes ({@code ""}). Unquoted fields are
+ * trimmed the same way {@link String#trim()} would trim them.
+ */
+public class CsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Parser states
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_SEEN = 3;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    private byte[] record = new byte[256];
+    private int recordLength;
+    private int[] fieldStart = new int[16];
+    private int[] fieldEnd = new int[16];
+    private int fieldCount;
+    private boolean fieldQuoted;
+
+    private long line;
+    private long recordLine;
+
+    /**
+     * Opens a reader over the file at the given path.
+     * @param path path of the CSV file
+     * @return a reader positioned before the first record
+     * @throws IOException if the file cannot be opened
+     */
+    public static CsvReader open(String path) throws IOException {
+        return new CsvReader(FileChannel.open(Path.of(path), StandardOpenOption.READ));
+    }
+
+    /**
+     * Creates a reader that pulls bytes from the given channel.
+     * @param channel the channel to read from; closed by {@link #close()}
+     */
+    public CsvReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.buffer.flip(); // start empty
+    }
+
+    /**
+     * Creates a reader over the remaining bytes of a buffer. The buffer
+     * is read through a private view, so its position is left untouched.
+     * @param source the bytes to parse (e.g. a mapped file region)
+     */
+    public CsvReader(ByteBuffer source) {
+        this(source, 0);
+    }
+
+    /**
+     * Creates a reader over the remaining bytes of a buffer that starts
+     * part-way through a file, so reported line numbers stay file-relative.
+     * @param source the bytes to parse
+     * @param linesBefore number of lines in the file before {@code source}
+     */
+    public CsvReader(ByteBuffer source, long linesBefore) {
+        this.channel = null;
+        this.buffer = source.slice();
+        this.line = linesBefore;
+    }
+
+    /**
+     * Advances to the next record.
+     * @return true if a record was read, false at end of input
+     * @throws IOException if reading from the channel fails
+     */
+    public boolean next() throws IOException {
+        recordLength = 0;
+        fieldCount = 0;
+        recordLine = line + 1;
+        beginField();
+        int state = FIELD_START;
+        boolean any = false;
+
+        while (true) {
+            if (!buffer.hasRemaining() && !fill()) {
+                if (!any) return false;
+                endField();
+                line++;
+                return true;
+            }
+            byte b = buffer.get();
+            any = true;
+            switch (state) {
+                case FIELD_START -> {
+                    if (b == '"') {
+                        fieldQuoted = true;
+                        state = QUOTED;
+                    } else if (b == ',') {
+                        endField();
+                        beginField();
+                    } else if (b == '\n') {
+                        endField();
+                        line++;
+                        return true;
+                    } else if ((b & 0xff) > ' ') {
+                        append(b);
+                        state = UNQUOTED;
+                    }
+                    // leading whitespace is skipped
+                }
+                case UNQUOTED -> {
+                    if (b == ',') {
+                        endField();
+                        beginField();
+                        state = FIELD_START;
+                    } else if (b == '\n') {
+                        endField();
+                        line++;
+                        return true;
+                    } else {
+                        append(b);
+                    }
+                }
+                case QUOTED -> {
+                    if (b == '"') {
+                        state = QUOTE_SEEN;
+                    } else {
+                        if (b == '\n') line++;
+                        append(b);
+                    }
+                }
+                default -> { // QUOTE_SEEN
+                    if (b == '"') {
+                        append(b); // escaped quote
+                        state = QUOTED;
+                    } else if (b == ',') {
+                        endField();
+                        beginField();
+                        state = FIELD_START;
+                    } else if (b == '\n') {
+                        endField();
+                        line++;
+                        return true;
+                    } else if ((b & 0xff) > ' ') {
+                        append(b); // lenient: text after closing quote
+                    }
+                }
+            }
+        }
+    }
+
+    /** Refills the buffer from the channel; false once input is exhausted */
+    private boolean fill() throws IOException {
+        if (channel == null) return false;
+        buffer.clear();
+        int n;
+        do {
+            n = channel.read(buffer);
+        } while (n == 0);
+        buffer.flip();
+        return n > 0;
+    }
+
+    private void append(byte b) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, record.length * 2);
+        }
+        record[recordLength++] = b;
+    }
+
+    private void beginField() {
+        if (fieldCount == fieldStart.length) {
+            fieldStart = Arrays.copyOf(fieldStart, fieldCount * 2);
+            fieldEnd = Arrays.copyOf(fieldEnd, fieldCount * 2);
+        }
+        fieldStart[fieldCount] = recordLength;
+        fieldQuoted = false;
+    }
+
+    private void endField() {
+        int end = recordLength;
+        if (!fieldQuoted) {
+            while (end > fieldStart[fieldCount] && (record[end - 1] & 0xff) <= ' ') end--;
+        }
+        fieldEnd[fieldCount] = end;
+        fieldCount++;
+    }
+
+    /** @return number of fields in the current record */
+    public int fieldCount() { return fieldCount; }
+
+    /** @return physical line number on which the current record starts (1-based) */
+    public long lineNumber() { return recordLine; }
+
+    /** @return true if the current record is an empty line */
+    public boolean isBlank() {
+        return fieldCount == 1 && fieldEnd[0] == fieldStart[0];
+    }
+
+    /** @return byte length of field i */
+    public int length(int i) {
+        checkIndex(i);
+        return fieldEnd[i] - fieldStart[i];
+    }
+
+    /** @return true if field i is empty */
+    public boolean isEmpty(int i) { return length(i) == 0; }
+
+    /**
+     * Decodes field i as a UTF-8 string.
+     * @param i field index
+     * @return the field value
+     */
+    public String getString(int i) {
+        checkIndex(i);
+        return new String(record, fieldStart[i], fieldEnd[i] - fieldStart[i], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses field i as a decimal int.
+     * @param i field index
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not a valid int
+     */
+    public int getInt(int i) {
+        checkIndex(i);
+        int p = fieldStart[i], end = fieldEnd[i];
+        if (p == end) throw new NumberFormatException("For input string: \"\"");
+        boolean negative = record[p] == '-';
+        if (negative || record[p] == '+') p++;
+        if (p == end) throw new NumberFormatException("For input string: \"" + getString(i) + "\"");
+        long value = 0;
+        for (; p < end; p++) {
+            int d = record[p] - '0';
+            if (d < 0 || d > 9) throw new NumberFormatException("For input string: \"" + getString(i) + "\"");
+            value = value * 10 + d;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("For input string: \"" + getString(i) + "\"");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) throw new NumberFormatException("For input string: \"" + getString(i) + "\"");
+        return (int) value;
+    }
+
+    /**
+     * Parses field i the same way {@link Boolean#parseBoolean} does.
+     * @param i field index
+     * @return true only if the field equals "true", ignoring case
+     */
+    public boolean getBoolean(int i) {
+        return fieldEquals(i, "true");
+    }
+
+    /**
+     * Compares field i to an ASCII string, ignoring case.
+     * @param i field index
+     * @param text the text to compare against
+     * @return true if equal
+     */
+    public boolean fieldEquals(int i, String text) {
+        checkIndex(i);
+        return regionEquals(fieldStart[i], fieldEnd[i], text);
+    }
+
+    /**
+     * Resolves field i to an enum constant by name, ignoring case.
+     * @param i field index
+     * @param values the constants to match against (e.g. {@code Level.values()})
+     * @return the matching constant
+     * @throws IllegalArgumentException if no constant matches
+     */
+    public <E extends Enum<E>> E getEnum(int i, E[] values) {
+        checkIndex(i);
+        E e = matchEnum(fieldStart[i], fieldEnd[i], values);
+        if (e == null) {
+            throw new IllegalArgumentException("No enum constant " + values.getClass().getComponentType()
+                    .getSimpleName() + "." + getString(i).toUpperCase());
+        }
+        return e;
+    }
+
+    /**
+     * Splits field i on a separator and adds every sub-value that names an
+     * enum constant to {@code out}. Unknown names are skipped.
+     * @param i field index
+     * @param separator separator between names (e.g. ';')
+     * @param values the constants to match against
+     * @param out collection receiving the matched constants
+     */
+    public <E extends Enum<E>> void getEnumList(int i, char separator, E[] values, Collection<E> out) {
+        checkIndex(i);
+        int p = fieldStart[i], end = fieldEnd[i];
+        while (p < end) {
+            int q = p;
+            while (q < end && record[q] != separator) q++;
+            int s = p, e = q;
+            while (s < e && (record[s] & 0xff) <= ' ') s++;
+            while (e > s && (record[e - 1] & 0xff) <= ' ') e--;
+            E match = matchEnum(s, e, values);
+            if (match != null) out.add(match);
+            p = q + 1;
+        }
+    }
+
+    /**
+     * Parses field i as an ISO {@code yyyy-MM-dd} date.
+     * @param i field index
+     * @return days since 1970-01-01
+     * @throws IllegalArgumentException if the field is not a valid date
+     */
+    public long getEpochDay(int i) {
+        checkIndex(i);
+        int p = fieldStart[i], end = fieldEnd[i];
+        if (end - p != 10 || record[p + 4] != '-' || record[p + 7] != '-') {
+            throw new IllegalArgumentException("Unparseable date: \"" + getString(i) + "\"");
+        }
+        int year = digits(i, p, 4);
+        int month = digits(i, p + 5, 2);
+        int day = digits(i, p + 8, 2);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            throw new IllegalArgumentException("Unparseable date: \"" + getString(i) + "\"");
+        }
+        return toEpochDay(year, month, day);
+    }
+
+    /**
+     * Drops the first n fields of the current record, so a prefixed record
+     * (such as a journal entry) can be read with the plain row's field indices.
+     * @param n number of leading fields to drop
+     */
+    public void shift(int n) {
+        if (n < 0 || n > fieldCount) {
+            throw new IndexOutOfBoundsException("Cannot shift " + n + " fields (found " + fieldCount + ")");
+        }
+        System.arraycopy(fieldStart, n, fieldStart, 0, fieldCount - n);
+        System.arraycopy(fieldEnd, n, fieldEnd, 0, fieldCount - n);
+        fieldCount -= n;
+    }
+
+    /** @return the current record re-joined with commas, for error messages */
+    public String recordText() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fieldCount; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(getString(i));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) channel.close();
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + i + " out of range (found " + fieldCount + ")");
+        }
+    }
+
+    private boolean regionEquals(int start, int end, String text) {
+        if (end - start != text.length()) return false;
+        for (int k = 0; k < text.length(); k++) {
+            if (toUpper(record[start + k]) != Character.toUpperCase(text.charAt(k))) return false;
+        }
+        return true;
+    }
+
+    private <E extends Enum<E>> E matchEnum(int start, int end, E[] values) {
+        for (E value : values) {
+            if (regionEquals(start, end, value.name())) return value;
+        }
+        return null;
+    }
+
+    private int digits(int field, int p, int count) {
+        int value = 0;
+        for (int k = 0; k < count; k++) {
+            int d = record[p + k] - '0';
+            if (d < 0 || d > 9) {
+                throw new IllegalArgumentException("Unparseable date: \"" + getString(field) + "\"");
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static int toUpper(byte b) {
+        return (b >= 'a' && b <= 'z') ? b - 32 : b;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> ((year & 3) == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /** Same arithmetic as {@link LocalDate#toEpochDay()}, without the object */
+    static long toEpochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!((year & 3) == 0 && (year % 100 != 0 || year % 400 == 0))) total--;
+        }
+        return total - 719528; // days from 0000-01-01 to 1970-01-01
+    }
+}
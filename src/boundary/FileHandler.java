@@ -4,10 +4,20 @@ import controller_class.IDataRepo;
 import boundary.IFileHandler;
 import entity_class.*;
 import java.io.*;
-import java.text.SimpleDateFormat;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * Handles reading from and writing to CSV files.
@@ -28,75 +38,272 @@ public class FileHandler implements IFileHandler {
     private static final String INTERNSHIP_FILE = DATA_DIR + "Internship.csv";
     private static final String APPLICATION_FILE = DATA_DIR + "Application.csv";
     private static final String WITHDRAWAL_FILE = DATA_DIR + "WithdrawalRequest.csv";
+    private static final String SNAPSHOT_FILE = DATA_DIR + "data.snapshot";
 
-    // Store passwords and student emails in memory
-    private final Map<String, String> userPasswords = new HashMap<>();
-    private final Map<String, String> studentEmails = new HashMap<>();
+    // Independent load stages (students, staff, reps) run side by side
+    private static final int LOAD_THREADS = 3;
+
+    // Journal size at which a save folds the journal into the CSV files
+    private static final long COMPACT_THRESHOLD = 256 * 1024;
+
+    // Store passwords and student emails in memory (written by concurrent load stages)
+    private final Map<String, String> userPasswords = new ConcurrentHashMap<>();
+    private final Map<String, String> studentEmails = new ConcurrentHashMap<>();
+
+    // Lets one load stage at a time publish to the repository
+    private final Lock publishLock = new ReentrantLock();
 
     private boolean loadedSuccessfully = false;
+    // Keep the binary snapshot up to date once one exists
+    private boolean snapshotEnabled = false;
+    // Set when the snapshot is older than the data loaded from the CSV files
+    private volatile boolean snapshotStale = false;
+
+    // Memory-map Internship/Application files and parse them in parallel chunks
+    private final boolean mappedLoading;
+
+    // Write-ahead journal of changes since the CSV files were last written (null if unavailable)
+    private Journal journal;
+    // Serialises save tasks, which may run on a background thread
+    private final Object diskLock = new Object();
+    // Set when a save failed to write a file, until a save rewrites every file
+    private volatile boolean compactionFailed = false;
 
-    /** Load all data from CSV files into the provided repository.
+    /** Creates a file handler that streams every file on the calling thread. */
+    public FileHandler() {
+        this(false);
+    }
+
+    /**
+     * Creates a file handler.
+     * @param mappedLoading true to memory-map the internship and application
+     *                      files and parse them on all available cores
+     */
+    public FileHandler(boolean mappedLoading) {
+        this.mappedLoading = mappedLoading;
+    }
+
+    /** Load all data into the provided repository.
+     *
+     * The binary snapshot is used when it exists and no CSV file has been
+     * modified since it was written, so hand edits to a CSV file always
+     * win. If the snapshot cannot be read, the CSV files are loaded instead.
+     *
      * @param repo the data repository abstraction to load data into
      * @return true if data loaded successfully without errors
      */
     @Override
     public boolean loadAllData(IDataRepo repo) {
-        System.out.println("Loading data from CSV files");
+        if (snapshotIsCurrent()) {
+            if (loadAllData(repo, Format.SNAPSHOT)) return true;
+            System.err.println("Falling back to CSV files");
+        }
+        return loadAllData(repo, Format.CSV);
+    }
+
+    /** Load all data from one format, then replay the journal on top.
+     * @param repo the data repository abstraction to load data into
+     * @param format the format to read
+     * @return true if data loaded successfully without errors
+     */
+    @Override
+    public boolean loadAllData(IDataRepo repo, Format format) {
         loadedSuccessfully = false;
         userPasswords.clear();
         studentEmails.clear();
+        boolean loaded = format == Format.SNAPSHOT ? loadSnapshot(repo) : loadCsvFiles(repo);
+        if (format == Format.SNAPSHOT && !loaded) {
+            return false; // nothing was published to the repository
+        }
+        loadedSuccessfully = loaded;
+        snapshotEnabled = Files.exists(Path.of(SNAPSHOT_FILE));
+        snapshotStale = snapshotEnabled && format == Format.CSV;
+        // Everything in the repository now matches the files
+        repo.clearAllDirty();
+        if (loadedSuccessfully) {
+            openJournal(repo);
+        }
+        return loadedSuccessfully;
+    }
+
+    /** Load all data from CSV files.
+     *
+     * Files are loaded as a dependency graph: students, staff and company
+     * reps load concurrently; internships start once reps are in (they link
+     * to a rep); applications start once students and internships are in;
+     * withdrawals come last. Each stage publishes to the repository under
+     * a write lock, so stages never see a half-updated map.
+     */
+    private boolean loadCsvFiles(IDataRepo repo) {
+        System.out.println("Loading data from CSV files");
+        long start = System.nanoTime();
+        Map<String, Long> stageMillis = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(LOAD_THREADS);
+        int totalErrors;
+        try {
+            CompletableFuture<Integer> students = stage("students", () -> loadStudents(repo), pool, stageMillis);
+            CompletableFuture<Integer> staff = stage("staff", () -> loadStaff(repo), pool, stageMillis);
+            CompletableFuture<Integer> reps = stage("companyReps", () -> loadCompanyReps(repo), pool, stageMillis);
+            CompletableFuture<Integer> internships = reps.thenCompose(
+                    r -> stage("internships", () -> loadInternships(repo), pool, stageMillis));
+            CompletableFuture<Integer> applications = CompletableFuture.allOf(students, internships).thenCompose(
+                    v -> stage("applications", () -> loadApplications(repo), pool, stageMillis));
+            CompletableFuture<Integer> withdrawals = CompletableFuture.allOf(staff, applications).thenCompose(
+                    v -> stage("withdrawals", () -> loadWithdrawalRequests(repo), pool, stageMillis));
 
-        int studentErrors = loadStudents(repo);
-        int staffErrors = loadStaff(repo);
-        int repErrors = loadCompanyReps(repo);
-        int internshipErrors = loadInternships(repo);
-        int applicationErrors = loadApplications(repo);
-        int withdrawalErrors = loadWithdrawalRequests(repo);
+            totalErrors = 0;
+            for (CompletableFuture<Integer> f : List.of(students, staff, reps, internships, applications, withdrawals)) {
+                totalErrors += joinStage(f);
+            }
+        } finally {
+            pool.shutdown();
+        }
 
-        int totalErrors = studentErrors + staffErrors + repErrors
-                          + internshipErrors + applicationErrors + withdrawalErrors;
+        StringBuilder timings = new StringBuilder("  Load timings (ms):");
+        for (String name : List.of("students", "staff", "companyReps", "internships", "applications", "withdrawals")) {
+            timings.append(' ').append(name).append('=').append(stageMillis.getOrDefault(name, -1L));
+        }
+        timings.append(" total=").append((System.nanoTime() - start) / 1_000_000);
+        System.out.println(timings);
 
         if (totalErrors > 0) {
             System.err.println(totalErrors + " error(s) occurred during loading!");
             System.err.println("Data will NOT be saved on exit to prevent data loss.");
-            loadedSuccessfully = false;
-        } else {
-            System.out.println("data loaded!");
-            loadedSuccessfully = true;
+            return false;
+        }
+        System.out.println("data loaded!");
+        return true;
+    }
+
+    /** Load all data from the binary snapshot; the repository is only touched once the whole file decodes */
+    private boolean loadSnapshot(IDataRepo repo) {
+        System.out.println("Loading data from snapshot");
+        long start = System.nanoTime();
+        BinarySnapshot.Contents contents;
+        try {
+            contents = BinarySnapshot.decode(ByteBuffer.wrap(Files.readAllBytes(Path.of(SNAPSHOT_FILE))),
+                    userPasswords, studentEmails);
+        } catch (IOException e) {
+            System.err.println("Error reading snapshot: " + e.getMessage());
+            userPasswords.clear();
+            studentEmails.clear();
+            return false;
+        }
+        contents.users.forEach(repo::addUser);
+        contents.internships.forEach(repo::addInternship);
+        contents.applications.forEach(repo::addApplication);
+        contents.withdrawals.forEach(repo::addWithdrawal);
+        System.out.println("  Users loaded: " + contents.users.size());
+        System.out.println("  Internships loaded: " + contents.internships.size());
+        System.out.println("  Applications loaded: " + contents.applications.size());
+        System.out.println("  Withdrawal requests loaded: " + contents.withdrawals.size() +
+                (contents.withdrawalErrors > 0 ? " (errors: " + contents.withdrawalErrors + ")" : ""));
+        System.out.println("  Load timings (ms): snapshot=" + (System.nanoTime() - start) / 1_000_000);
+        System.out.println("data loaded!");
+        return true;
+    }
+
+    /** True if the snapshot exists and no CSV file has been modified since it was written */
+    private static boolean snapshotIsCurrent() {
+        Path snapshot = Path.of(SNAPSHOT_FILE);
+        if (!Files.exists(snapshot)) return false;
+        try {
+            FileTime written = Files.getLastModifiedTime(snapshot);
+            for (Types.EntityType type : Types.EntityType.values()) {
+                Path csv = Path.of(fileFor(type));
+                if (Files.exists(csv) && Files.getLastModifiedTime(csv).compareTo(written) > 0) return false;
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** Write a complete copy of the repository in the given format.
+     * Writing a snapshot also keeps it up to date on every later save.
+     * Reads the live entities rather than a {@link controller_class.RepoSnapshot}:
+     * an export needs every entity type and field, which the snapshot does not
+     * carry, and it runs only from the converter and at close, with no other session.
+     * @param repo the data repository abstraction to save data from
+     * @param format the format to write
+     * @return true if every file was written
+     */
+    @Override
+    public boolean exportData(IDataRepo repo, Format format) {
+        if (format == Format.SNAPSHOT) {
+            snapshotEnabled = true;
+            byte[] snapshot = BinarySnapshot.encode(repo, userPasswords, studentEmails);
+            synchronized (diskLock) {
+                return writeSnapshot(snapshot);
+            }
+        }
+        Map<Types.EntityType, List<String>> files = new EnumMap<>(Types.EntityType.class);
+        for (Types.EntityType type : Types.EntityType.values()) {
+            files.put(type, captureRows(repo, type));
+        }
+        boolean ok = true;
+        synchronized (diskLock) {
+            for (Map.Entry<Types.EntityType, List<String>> e : files.entrySet()) {
+                ok &= writeFile(e.getKey(), e.getValue());
+            }
+        }
+        return ok;
+    }
+
+    /** Run one load stage on the pool and record how long it took */
+    private CompletableFuture<Integer> stage(String name, Supplier<Integer> loader,
+                                             ExecutorService pool, Map<String, Long> stageMillis) {
+        return CompletableFuture.supplyAsync(() -> {
+            long t = System.nanoTime();
+            try {
+                return loader.get();
+            } finally {
+                stageMillis.put(name, (System.nanoTime() - t) / 1_000_000);
+            }
+        }, pool);
+    }
+
+    /** Wait for a stage; an unexpected failure counts as a fatal load error */
+    private int joinStage(CompletableFuture<Integer> stage) {
+        try {
+            return stage.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            System.err.println("Error during loading: " + cause);
+            return 999;
+        }
+    }
+
+    /** Apply a batch of repository writes while no other stage is writing */
+    private void publish(Runnable writes) {
+        publishLock.lock();
+        try {
+            writes.run();
+        } finally {
+            publishLock.unlock();
         }
-        return loadedSuccessfully;
     }
 
     /** Load students from CSV */
     private int loadStudents(IDataRepo repo) {
         int success = 0, errors = 0;
-        try (BufferedReader br = new BufferedReader(new FileReader(STUDENT_FILE))) {
-            br.readLine(); // skip header
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(",");
-                if (parts.length < 6) {
-                    System.err.println("Error parsing student (insufficient fields): " + line);
+        List<User> loaded = new ArrayList<>();
+        try (CsvReader row = CsvReader.open(STUDENT_FILE)) {
+            row.next(); // skip header
+            while (row.next()) {
+                if (row.isBlank()) continue;
+                if (row.fieldCount() < 6) {
+                    System.err.println("Error parsing student (insufficient fields): " + row.recordText());
                     errors++;
                     continue;
                 }
                 try {
-                    String studentID = parts[0].trim();
-                    String password = parts[1].trim();
-                    String name = parts[2].trim();
-                    String majorStr = parts[3].trim().toUpperCase();
-                    int year = Integer.parseInt(parts[4].trim());
-                    String email = parts[5].trim();
-                    if (studentID.isEmpty() || name.isEmpty() || majorStr.isEmpty()) continue;
-                    Types.Major major = mapMajor(majorStr);
-                    Student student = new Student(studentID, name, year, major, password);
-                    userPasswords.put(studentID, password);
-                    studentEmails.put(studentID, email);
-                    repo.addUser(student);
+                    Student student = parseStudent(row);
+                    if (student == null) continue;
+                    loaded.add(student);
                     success++;
                 } catch (Exception e) {
-                    System.err.println("Error parsing student: " + parts[0] + " - " + e.getMessage());
+                    System.err.println("Error parsing student: " + row.getString(0) + " - " + e.getMessage());
                     errors++;
                 }
             }
@@ -104,35 +311,44 @@ public class FileHandler implements IFileHandler {
             System.err.println("Error reading student file: " + e.getMessage());
             return 999;
         }
+        publish(() -> loaded.forEach(repo::addUser));
         System.out.println("  Students loaded: " + success + (errors > 0 ? " (errors: " + errors + ")" : ""));
         return errors;
     }
 
+    /** Build a student from one CSV row and remember its password and email */
+    private Student parseStudent(CsvReader row) {
+        if (row.isEmpty(0) || row.isEmpty(2) || row.isEmpty(3)) return null;
+        String studentID = row.getString(0);
+        String password = row.getString(1);
+        String name = row.getString(2);
+        Types.Major major = mapMajor(row, 3);
+        int year = row.getInt(4);
+        String email = row.getString(5);
+        Student student = new Student(studentID, name, year, major, password);
+        userPasswords.put(studentID, password);
+        studentEmails.put(studentID, email);
+        return student;
+    }
+
     /** Load staff from CSV */
     private int loadStaff(IDataRepo repo) {
         int success = 0, errors = 0;
-        try (BufferedReader br = new BufferedReader(new FileReader(STAFF_FILE))) {
-            br.readLine(); // skip header
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(",");
-                if (parts.length < 6) {
-                    System.err.println("Error parsing staff (insufficient fields): " + line);
+        List<User> loaded = new ArrayList<>();
+        try (CsvReader row = CsvReader.open(STAFF_FILE)) {
+            row.next(); // skip header
+            while (row.next()) {
+                if (row.isBlank()) continue;
+                if (row.fieldCount() < 6) {
+                    System.err.println("Error parsing staff (insufficient fields): " + row.recordText());
                     errors++;
                     continue;
                 }
                 try {
-                    String staffID = parts[0].trim(); 
-                    String password = parts[1].trim();
-                    String name = parts[2].trim();
-                    String department = parts[4].trim();
-                    CareerStaff staff = new CareerStaff(staffID, name, department, password);
-                    userPasswords.put(staffID, password);
-                    repo.addUser(staff);
+                    loaded.add(parseStaff(row));
                     success++;
                 } catch (Exception e) {
-                    System.err.println("Error parsing staff: " + line);
+                    System.err.println("Error parsing staff: " + row.recordText());
                     System.err.println("  Reason: " + e.getMessage());
                     errors++;
                 }
@@ -141,45 +357,46 @@ public class FileHandler implements IFileHandler {
             System.err.println("Error reading staff file: " + e.getMessage());
             return 999;
         }
+        publish(() -> loaded.forEach(repo::addUser));
         System.out.println("  Staff loaded: " + success + (errors > 0 ? " (errors: " + errors + ")" : ""));
         return errors;
     }
 
+    /** Build a staff member from one CSV row and remember its password */
+    private CareerStaff parseStaff(CsvReader row) {
+        String staffID = row.getString(0);
+        String password = row.getString(1);
+        String name = row.getString(2);
+        String department = row.getString(4);
+        CareerStaff staff = new CareerStaff(staffID, name, department, password);
+        userPasswords.put(staffID, password);
+        return staff;
+    }
+
     /** Load company representatives from CSV */
     private int loadCompanyReps(IDataRepo repo) {
         int success = 0, errors = 0;
+        List<User> loaded = new ArrayList<>();
         File file = new File(COMPANYREP_FILE);
         if (!file.exists()) {
             System.out.println("No company rep file found. Creating empty file.");
             createEmptyCompanyRepFile();
             return 0;
         }
-        try (BufferedReader br = new BufferedReader(new FileReader(COMPANYREP_FILE))) {
-            br.readLine(); // skip header
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(",");
-                if (parts.length < 8) {
-                    System.err.println("Error parsing company rep (insufficient fields): " + line);
+        try (CsvReader row = CsvReader.open(COMPANYREP_FILE)) {
+            row.next(); // skip header
+            while (row.next()) {
+                if (row.isBlank()) continue;
+                if (row.fieldCount() < 8) {
+                    System.err.println("Error parsing company rep (insufficient fields): " + row.recordText());
                     errors++;
                     continue;
                 }
                 try {
-                    String email = parts[0].trim();
-                    String password = parts[1].trim();
-                    String name = parts[2].trim();
-                    String companyName = parts[3].trim();
-                    String department = parts[4].trim();
-                    String position = parts[5].trim();
-                    boolean approved = parts[7].trim().equalsIgnoreCase("APPROVED");
-                    CompanyRep rep = new CompanyRep(email, name, companyName, department, position, password);
-                    rep.setApproved(approved);
-                    userPasswords.put(email, password);
-                    repo.addUser(rep);
+                    loaded.add(parseCompanyRep(row));
                     success++;
                 } catch (Exception e) {
-                    System.err.println("Error parsing company rep: " + line);
+                    System.err.println("Error parsing company rep: " + row.recordText());
                     System.err.println("  Reason: " + e.getMessage());
                     errors++;
                 }
@@ -188,10 +405,26 @@ public class FileHandler implements IFileHandler {
             System.err.println("Error reading company rep file: " + e.getMessage());
             return 999;
         }
+        publish(() -> loaded.forEach(repo::addUser));
         System.out.println("  Company reps loaded: " + success + (errors > 0 ? " (errors: " + errors + ")" : ""));
         return errors;
     }
 
+    /** Build a company rep from one CSV row and remember its password */
+    private CompanyRep parseCompanyRep(CsvReader row) {
+        String email = row.getString(0);
+        String password = row.getString(1);
+        String name = row.getString(2);
+        String companyName = row.getString(3);
+        String department = row.getString(4);
+        String position = row.getString(5);
+        boolean approved = row.fieldEquals(7, "APPROVED");
+        CompanyRep rep = new CompanyRep(email, name, companyName, department, position, password);
+        rep.setApproved(approved);
+        userPasswords.put(email, password);
+        return rep;
+    }
+
     /** Load internships from CSV */
     private int loadInternships(IDataRepo repo) {
         File file = new File(INTERNSHIP_FILE);
@@ -200,81 +433,16 @@ public class FileHandler implements IFileHandler {
             createEmptyInternshipFile();
             return 0;
         }
-        int success = 0, errors = 0;
-        try (BufferedReader br = new BufferedReader(new FileReader(INTERNSHIP_FILE))) {
-            br.readLine(); // skip header
-            String line;
-            int lineNumber = 1;
-            while ((line = br.readLine()) != null) {
-                lineNumber++;
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(",", -1);
-                if (parts.length < 10) {
-                    System.err.println("Error line " + lineNumber + ": insufficient fields (found " +
-                            parts.length + ", need 10)");
-                    errors++;
-                    continue;
-                }
-                try {
-                    String internshipID = parts[0].trim();
-                    String title = parts[1].trim();
-                    String description = parts[2].trim();
-                    Types.InternshipLevel level = Types.InternshipLevel.valueOf(parts[3].trim().toUpperCase());
-                    String majorStr = parts[4].trim();
-                    Date openDate = new SimpleDateFormat("yyyy-MM-dd").parse(parts[5].trim());
-                    Date closeDate = new SimpleDateFormat("yyyy-MM-dd").parse(parts[6].trim());
-                    String companyName = parts[7].trim();
-                    Types.InternshipStatus status = Types.InternshipStatus.valueOf(parts[8].trim().toUpperCase());
-                    int slots = Integer.parseInt(parts[9].trim());
-                    int confirmed = parts.length > 10 ? Integer.parseInt(parts[10].trim()) : 0;
-                    boolean visible = parts.length <= 11 || Boolean.parseBoolean(parts[11].trim());
-
-                    Internship internship = new Internship(internshipID);
-                    internship.setTitle(title);
-                    internship.setDescription(description);
-                    internship.setLevel(level);
-                    internship.setOpenDate(openDate);
-                    internship.setCloseDate(closeDate);
-                    internship.setCompanyName(companyName);
-                    internship.setStatus(status);
-                    internship.setNumberOfSlots(slots);
-                    internship.setVisible(visible);
-
-                    // preferred majors
-                    if (!majorStr.isEmpty()) {
-                        for (String m : majorStr.split(";")) {
-                            try {
-                                internship.getPreferredMajor().add(Types.Major.valueOf(m.trim().toUpperCase()));
-                            } catch (Exception ignored) { }
-                        }
-                    }
-
-                    // link to company rep
-                    User user = repo.getAllUsers().stream()
-                            .filter(u -> u instanceof CompanyRep &&
-                                    ((CompanyRep) u).getCompanyName().equals(companyName))
-                            .findFirst()
-                            .orElse(null);
-
-                    if (user instanceof CompanyRep rep) {
-                        internship.setCompanyRepresentative(rep);
-                        rep.getCreatedInternships().add(internship);
-                    } else {
-                        System.err.println("Warning line " + lineNumber + " (" + internshipID +
-                                "): Company rep not found for '" + companyName);
-                    }
-
-                    repo.addInternship(internship);
-                    success++;
-                } catch (Exception e) {
-                    System.err.println("Error line " + lineNumber + ": " + e.getMessage());
-                    errors++;
-                }
-            }
+        int[] counts;
+        Map<Internship, Long> loaded = new LinkedHashMap<>();
+        try {
+            counts = readRows(INTERNSHIP_FILE, this::parseInternship, loaded::put, true);
         } catch (IOException e) {
             System.err.println("Error reading internship file: " + e.getMessage());
             return 999;
         }
+        publish(() -> loaded.forEach((internship, lineNumber) -> linkInternship(repo, internship, lineNumber)));
+        int success = counts[0], errors = counts[1];
         if (success > 0 || errors > 0) {
             System.out.println("  Internships loaded: " + success +
                     (errors > 0 ? " (errors: " + errors + ")" : ""));
@@ -282,6 +450,46 @@ public class FileHandler implements IFileHandler {
         return errors;
     }
 
+    /** Build an internship from one CSV row; touches no shared state */
+    private Internship parseInternship(CsvReader row) {
+        if (row.fieldCount() < 10) {
+            throw new IllegalArgumentException("insufficient fields (found " +
+                    row.fieldCount() + ", need 10)");
+        }
+        Internship internship = new Internship(row.getString(0));
+        internship.setTitle(row.getString(1));
+        internship.setDescription(row.getString(2));
+        internship.setLevel(row.getEnum(3, Types.InternshipLevel.values()));
+        internship.setOpenDay((int) row.getEpochDay(5));
+        internship.setCloseDay((int) row.getEpochDay(6));
+        internship.setCompanyName(row.getString(7));
+        internship.setStatus(row.getEnum(8, Types.InternshipStatus.values()));
+        internship.setNumberOfSlots(row.getInt(9));
+        internship.setVisible(row.fieldCount() <= 11 || row.getBoolean(11));
+
+        // preferred majors
+        List<Types.Major> majors = new ArrayList<>();
+        row.getEnumList(4, ';', Types.Major.values(), majors);
+        internship.setPreferredMajors(majors);
+        return internship;
+    }
+
+    /** Link a parsed internship to its company rep and add it to the repository */
+    private void linkInternship(IDataRepo repo, Internship internship, long lineNumber) {
+        String companyName = internship.getCompanyName();
+        CompanyRep rep = repo.findCompanyRep(companyName);
+
+        if (rep != null) {
+            internship.setCompanyRepresentative(rep);
+            rep.addCreatedInternship(internship);
+        } else {
+            System.err.println("Warning line " + lineNumber + " (" + internship.getInternshipID() +
+                    "): Company rep not found for '" + companyName);
+        }
+
+        repo.addInternship(internship);
+    }
+
     /** Load applications from CSV */
     private int loadApplications(IDataRepo repo) {
         File file = new File(APPLICATION_FILE);
@@ -290,179 +498,648 @@ public class FileHandler implements IFileHandler {
             createEmptyApplicationFile();
             return 0;
         }
+        int[] counts;
+        List<Application> loaded = new ArrayList<>();
+        try {
+            counts = readRows(APPLICATION_FILE, row -> parseApplication(repo, row),
+                    (app, lineNumber) -> loaded.add(app), false);
+        } catch (IOException e) {
+            System.err.println("Error reading application file: " + e.getMessage());
+            return 999;
+        }
+        publish(() -> loaded.forEach(app -> linkApplication(repo, app)));
+        if (counts[0] > 0) {
+            System.out.println("  Applications loaded: " + counts[0]);
+        }
+        return counts[1];
+    }
+
+    /**
+     * Build an application from one CSV row; only reads from the repository.
+     * Its students and internships were published by earlier stages, and a
+     * lookup by ID never blocks, so no lock is taken per row.
+     */
+    private Application parseApplication(IDataRepo repo, CsvReader row) {
+        if (row.fieldCount() < 4) return null;
+        String applicationID = row.getString(0);
+        Types.ApplicationStatus status = row.getEnum(3, Types.ApplicationStatus.values());
+        boolean accepted = row.fieldCount() > 4 && row.getBoolean(4);
+        Student student = repo.findStudent(row.getString(1));
+        Internship internship = repo.findInternship(row.getString(2));
+        if (student == null || internship == null) return null;
+        Application app = new Application(applicationID, internship, student);
+        app.updateStatus(status);
+        app.setAccepted(accepted);
+        return app;
+    }
+
+    /** Attach a parsed application to its student and internship and add it to the repository */
+    private void linkApplication(IDataRepo repo, Application app) {
+        Student student = app.getStudent();
+        Internship internship = app.getInternship();
+        student.addApplication(app);
+        internship.addApplication(app);
+        if (app.isAccepted()) {
+            student.setAcceptedInternship(app);
+            internship.linkIntern(student);
+        }
+        repo.addApplication(app);
+    }
+
+    /**
+     * Parse every data row of a CSV file and hand the results to a sink in
+     * file order. With mapped loading enabled the file is memory-mapped and
+     * parsed in parallel chunks; otherwise it is streamed on this thread.
+     * @return {successCount, errorCount}
+     */
+    private <T> int[] readRows(String path, MappedCsvLoader.RowParser<T> parser,
+                               BiConsumer<T, Long> sink, boolean reportErrors) throws IOException {
         int success = 0, errors = 0;
-        try (BufferedReader br = new BufferedReader(new FileReader(APPLICATION_FILE))) {
-            br.readLine(); // skip header
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(",");
-                if (parts.length < 4) continue;
+        if (mappedLoading) {
+            for (MappedCsvLoader.Row<T> row : MappedCsvLoader.parse(path, parser)) {
+                if (row.getError() != null) {
+                    if (reportErrors) {
+                        System.err.println("Error line " + row.getLineNumber() + ": " + row.getError().getMessage());
+                    }
+                    errors++;
+                } else {
+                    sink.accept(row.getValue(), row.getLineNumber());
+                    success++;
+                }
+            }
+            return new int[]{success, errors};
+        }
+        try (CsvReader row = CsvReader.open(path)) {
+            row.next(); // skip header
+            while (row.next()) {
+                if (row.isBlank()) continue;
                 try {
-                    String applicationID = parts[0].trim();
-                    String studentID = parts[1].trim();
-                    String internshipID = parts[2].trim();
-                    Types.ApplicationStatus status = Types.ApplicationStatus.valueOf(parts[3].trim().toUpperCase());
-                    boolean accepted = parts.length > 4 && Boolean.parseBoolean(parts[4].trim());
-                    User userObj = repo.findUser(studentID);
-                    Internship internship = repo.findInternship(internshipID);
-                    if (userObj instanceof Student student && internship != null) {
-                        Application app = new Application(applicationID, internship, student);
-                        app.updateStatus(status);
-                        app.setAccepted(accepted);
-                        student.getApplications().add(app);
-                        internship.getApplications().add(app);
-                        if (accepted) {
-                            student.setAcceptedInternship(app);
-                            internship.getInterns().add(student);
-                        }
+                    T value = parser.parse(row);
+                    if (value != null) {
+                        sink.accept(value, row.lineNumber());
                         success++;
                     }
                 } catch (Exception e) {
+                    if (reportErrors) {
+                        System.err.println("Error line " + row.lineNumber() + ": " + e.getMessage());
+                    }
                     errors++;
                 }
             }
+        }
+        return new int[]{success, errors};
+    }
+
+    /**
+     * Open the journal, replay any changes it holds on top of the freshly
+     * loaded CSV data, and start journaling every change marked from now on.
+     * If the journal cannot be opened, saves rewrite the CSV files directly.
+     */
+    private void openJournal(IDataRepo repo) {
+        int replayed = replayJournal(repo);
+        if (replayed > 0) {
+            System.out.println("  Journal records replayed: " + replayed);
+        }
+        try {
+            journal = Journal.open(DATA_DIR);
         } catch (IOException e) {
-            System.err.println("Error reading application file: " + e.getMessage());
-            return 999;
+            System.err.println("Error opening journal, changes will be saved directly: " + e.getMessage());
+            journal = null;
+            return;
         }
-        if (success > 0) {
-            System.out.println("  Applications loaded: " + success);
+        repo.setChangeListener((type, id) -> journal.append(journalRecord(repo, type, id)));
+    }
+
+    /** Encode the current state of one record as a journal entry: TYPE,PUT,row or TYPE,DEL,id */
+    private String journalRecord(IDataRepo repo, Types.EntityType type, String id) {
+        String row = switch (type) {
+            case STUDENT, CAREER_STAFF, COMPANY_REP -> {
+                User user = repo.findUser(id);
+                yield user != null ? userRow(user) : null;
+            }
+            case INTERNSHIP -> {
+                Internship internship = repo.findInternship(id);
+                yield internship != null ? internshipRow(internship) : null;
+            }
+            case APPLICATION -> {
+                Application app = repo.findApplication(id);
+                yield app != null ? applicationRow(app) : null;
+            }
+            case WITHDRAWAL -> {
+                WithdrawalRequest wr = repo.findWithdrawal(id);
+                yield wr != null ? withdrawalRow(wr) : null;
+            }
+        };
+        return type + (row != null ? ",PUT," + row : ",DEL," + csv(id));
+    }
+
+    /**
+     * Re-apply journaled changes left by an earlier run. Entries are upserts,
+     * so replaying changes already contained in the CSV files is harmless.
+     * Replayed records are marked dirty so the next compaction writes them.
+     * @return number of entries applied
+     */
+    private int replayJournal(IDataRepo repo) {
+        List<Path> segments;
+        try {
+            segments = Journal.segments(Path.of(DATA_DIR));
+        } catch (IOException e) {
+            System.err.println("Error listing journal: " + e.getMessage());
+            return 0;
+        }
+        int replayed = 0;
+        for (Path segment : segments) {
+            try (CsvReader row = CsvReader.open(segment.toString())) {
+                while (row.next()) {
+                    if (row.isBlank()) continue;
+                    try {
+                        replayRecord(repo, row);
+                        replayed++;
+                    } catch (Exception e) {
+                        // a crash can leave the last entry of a segment incomplete
+                        System.err.println("Warning " + segment.getFileName() + " line " +
+                                row.lineNumber() + ": " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading journal " + segment.getFileName() + ": " + e.getMessage());
+            }
+        }
+        return replayed;
+    }
+
+    /** Apply one journal entry to the repository */
+    private void replayRecord(IDataRepo repo, CsvReader row) {
+        Types.EntityType type = row.getEnum(0, Types.EntityType.values());
+        boolean put = row.fieldEquals(1, "PUT");
+        if (!put && !row.fieldEquals(1, "DEL")) {
+            throw new IllegalArgumentException("Unknown journal operation: " + row.getString(1));
+        }
+        long lineNumber = row.lineNumber();
+        row.shift(2);
+        String id = row.getString(0);
+        if (!put) {
+            replayDelete(repo, type, id);
+            return;
+        }
+        switch (type) {
+            case STUDENT, CAREER_STAFF, COMPANY_REP -> {
+                String oldPassword = userPasswords.get(id);
+                User parsed = switch (type) {
+                    case STUDENT -> parseStudent(row);
+                    case CAREER_STAFF -> parseStaff(row);
+                    default -> parseCompanyRep(row);
+                };
+                if (parsed != null) replayUser(repo, parsed, oldPassword);
+            }
+            case INTERNSHIP -> {
+                Internship parsed = parseInternship(row);
+                Internship existing = repo.findInternship(id);
+                if (existing == null) {
+                    linkInternship(repo, parsed, lineNumber);
+                    return;
+                }
+                existing.setTitle(parsed.getTitle());
+                existing.setDescription(parsed.getDescription());
+                existing.setLevel(parsed.getLevel());
+                existing.setPreferredMajorMask(parsed.getPreferredMajorMask());
+                existing.setOpenDay(parsed.getOpenDay());
+                existing.setCloseDay(parsed.getCloseDay());
+                existing.setCompanyName(parsed.getCompanyName());
+                existing.setStatus(parsed.getStatus());
+                existing.setNumberOfSlots(parsed.getNumberOfSlots());
+                existing.setVisible(parsed.isVisible());
+                repo.markDirty(type, id);
+            }
+            case APPLICATION -> {
+                Application existing = repo.findApplication(id);
+                if (existing == null) {
+                    Application app = parseApplication(repo, row);
+                    if (app == null) return;
+                    linkApplication(repo, app);
+                } else {
+                    existing.updateStatus(row.getEnum(3, Types.ApplicationStatus.values()));
+                    boolean accepted = row.fieldCount() > 4 && row.getBoolean(4);
+                    existing.setAccepted(accepted);
+                    Student student = existing.getStudent();
+                    Internship internship = existing.getInternship();
+                    if (accepted && student.getAcceptedInternship() != existing) {
+                        student.setAcceptedInternship(existing);
+                        internship.linkIntern(student);
+                    } else if (!accepted && student.getAcceptedInternship() == existing) {
+                        student.setAcceptedInternship(null);
+                        internship.unlinkIntern(student);
+                    }
+                }
+                repo.markDirty(type, id);
+            }
+            case WITHDRAWAL -> {
+                WithdrawalRequest existing = repo.findWithdrawal(id);
+                if (existing == null) {
+                    repo.addWithdrawal(parseWithdrawal(repo, row));
+                } else {
+                    existing.setStatus(row.getEnum(5, Types.WithdrawalStatus.values()));
+                    repo.markDirty(type, id);
+                }
+            }
         }
-        return errors;
     }
 
-    /** Save all data from the repository back to CSV files.
+    /** Apply a journaled user row to the user already in the repository, or add it */
+    private void replayUser(IDataRepo repo, User parsed, String oldPassword) {
+        User existing = repo.findUser(parsed.getUserID());
+        if (existing == null) {
+            repo.addUser(parsed);
+            return;
+        }
+        String password = userPasswords.get(parsed.getUserID());
+        if (oldPassword != null && !oldPassword.equals(password)) {
+            existing.changePassword(oldPassword, password);
+        }
+        if (existing instanceof CompanyRep rep && parsed instanceof CompanyRep p) {
+            rep.setApproved(p.isApproved());
+        } else if (existing instanceof CareerStaff staff && parsed instanceof CareerStaff p) {
+            staff.setDepartment(p.getDepartment());
+        }
+        repo.markDirty(existing);
+    }
+
+    /** Apply a journaled removal */
+    private void replayDelete(IDataRepo repo, Types.EntityType type, String id) {
+        switch (type) {
+            case STUDENT, CAREER_STAFF, COMPANY_REP -> repo.removeUser(id);
+            case INTERNSHIP -> {
+                Internship internship = repo.findInternship(id);
+                if (internship == null) return;
+                if (internship.getCompanyRepresentative() != null) {
+                    internship.getCompanyRepresentative().removeCreatedInternship(id);
+                }
+                repo.removeInternship(id);
+            }
+            case APPLICATION -> repo.removeApplication(id);
+            default -> throw new IllegalArgumentException("Cannot delete " + type + " " + id);
+        }
+    }
+
+    /** Save changed data from the repository on the calling thread.
      * @param repo the data repository abstraction to save data from
      */
     @Override
     public void saveAllData(IDataRepo repo) {
+        runAndReport(prepare(repo));
+    }
+
+    /** Capture a save of the changed data; the returned task does the disk work.
+     * Every change is already in the journal as soon as it is made, so a
+     * save usually only waits for the journal to reach the disk. Once the
+     * journal grows past {@link #COMPACT_THRESHOLD}, the changed CSV files
+     * are captured as well, and the task rewrites them and truncates the journal.
+     * @param repo the data repository abstraction to save data from
+     * @return the disk work of the save
+     */
+    @Override
+    public ISaveTask prepareSave(IDataRepo repo) {
+        return prepare(repo);
+    }
+
+    private PendingSave prepare(IDataRepo repo) {
         if (!loadedSuccessfully) {
             System.err.println("data not loaded properly, files will not be overwritten");
+            return new PendingSave();
+        }
+        boolean journaled = journalUsable();
+        if (repo.getDirtyTypes().isEmpty() && !compactionFailed) {
+            System.out.println("\nNo changes to save");
+            return new PendingSave();
+        }
+        if (journaled && journal.size() < COMPACT_THRESHOLD) {
+            System.out.println("\nChanges saved to journal (" + journal.size() + " bytes pending compaction)");
+            return new PendingSave();
+        }
+        return capture(repo, journaled);
+    }
+
+    /** Write any outstanding changes to the CSV files and stop journaling */
+    @Override
+    public void close(IDataRepo repo) {
+        if (!loadedSuccessfully) {
+            saveAllData(repo);
             return;
         }
+        if (!repo.getDirtyTypes().isEmpty() || compactionFailed) {
+            runAndReport(capture(repo, journalUsable()));
+        } else if (snapshotStale) {
+            // the CSV files were edited after the snapshot was written
+            System.out.println("\nUpdating snapshot");
+            exportData(repo, Format.SNAPSHOT);
+        } else {
+            System.out.println("\nNo changes to save");
+        }
+        if (journal != null) {
+            repo.setChangeListener(null);
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean journalUsable() {
+        return journal != null && !journal.hasFailed();
+    }
+
+    private void runAndReport(PendingSave save) {
+        save.run();
+        if (save.writesFiles() && save.succeeded) {
+            System.out.println("All data saved successfully!");
+        }
+    }
+
+    /**
+     * Rotate the journal, then capture the rows of every changed CSV file
+     * (and the snapshot, if in use), so the returned task can replace the
+     * files and delete the sealed journal segments. Each type's dirty marks
+     * are taken before its rows are read: a change journaled before the
+     * rotation is marked by then and so in the captured rows, and a later
+     * change stays in a live segment and is marked again for the next save.
+     * @param journaled false if the journal cannot be relied on, in which case
+     *                  every file is captured and the whole journal dropped
+     */
+    private PendingSave capture(IDataRepo repo, boolean journaled) {
+        PendingSave save = new PendingSave();
+        save.full = !journaled || compactionFailed;
+        if (!journaled) {
+            save.sealed = Long.MAX_VALUE; // every file is rewritten, so the whole journal is obsolete
+        } else {
+            try {
+                save.sealed = journal.rotate();
+            } catch (IOException e) {
+                System.err.println("Error rotating journal: " + e.getMessage());
+            }
+        }
+        Set<Types.EntityType> types = save.full
+                ? EnumSet.allOf(Types.EntityType.class) : repo.getDirtyTypes();
+
         System.out.println("\nSaving data to CSV files");
-        saveStudents(repo);
-        saveStaff(repo);
-        saveCompanyReps(repo);
-        saveInternships(repo);
-        saveApplications(repo);
-        saveWithdrawalRequest(repo);
-        System.out.println("All data saved successfully!");
-    }
-
-    /** Save students */
-    private void saveStudents(IDataRepo repo) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(STUDENT_FILE))) {
-            writer.println("StudentID,Password,Name,Major,Year,Email");
-            for (User user : repo.getAllUsers()) {
-                if (user instanceof Student s) {
-                    String password = userPasswords.getOrDefault(s.getUserID(), "password");
-                    String email = studentEmails.get(s.getUserID());
-                    writer.printf("%s,%s,%s,%s,%d,%s%n",
-                            s.getUserID(),
-                            password,
-                            s.getName(),
-                            s.getMajor(),
-                            s.getYearOfStudy(),
-                            email);
-                }
+        for (Types.EntityType type : types) {
+            int changed = repo.takeDirty(type).size();
+            save.files.put(type, captureRows(repo, type));
+            System.out.println("  " + type + ": " + changed + " changed record(s)");
+        }
+        if (snapshotEnabled) {
+            save.snapshot = BinarySnapshot.encode(repo, userPasswords, studentEmails);
+        }
+        return save;
+    }
+
+    /** Captured CSV rows, snapshot and journal position of one save */
+    private final class PendingSave implements ISaveTask {
+        private final Map<Types.EntityType, List<String>> files = new EnumMap<>(Types.EntityType.class);
+        private byte[] snapshot;
+        private long sealed = -1;  // highest journal segment the files cover, -1 for none
+        private boolean full;      // every CSV file is included
+        private volatile boolean succeeded;
+
+        boolean writesFiles() { return !files.isEmpty() || snapshot != null; }
+
+        @Override
+        public void run() {
+            synchronized (diskLock) {
+                flushJournal();
+                succeeded = !writesFiles() || writeFiles(this);
             }
+        }
+
+        @Override
+        public ISaveTask then(ISaveTask newer) {
+            PendingSave next = (PendingSave) newer;
+            PendingSave merged = new PendingSave();
+            merged.files.putAll(files);
+            merged.files.putAll(next.files);
+            merged.snapshot = next.snapshot != null ? next.snapshot : snapshot;
+            merged.sealed = Math.max(sealed, next.sealed);
+            merged.full = full || next.full;
+            return merged;
+        }
+    }
+
+    /** Wait until every journaled change is on disk */
+    private void flushJournal() {
+        if (journal == null) return;
+        try {
+            journal.flush();
         } catch (IOException e) {
-            System.err.println("Error saving students: " + e.getMessage());
-        }
-    }
-
-    /** Save staff */
-    private void saveStaff(IDataRepo repo) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(STAFF_FILE))) {
-            writer.println("StaffID,Password,Name,Role,Department,Email");
-            for (User user : repo.getAllUsers()) {
-                if (user instanceof CareerStaff c) {
-                    String password = userPasswords.getOrDefault(c.getUserID(), "password");
-                    writer.printf("%s,%s,%s,%s,%s,%s%n",
-                            c.getUserID(),
-                            password,
-                            c.getName(),
-                            c.getUserRole(),
-                            c.getDepartment(),
-                            c.getUserID() + "@ntu.edu.sg");
-                }
+            System.err.println("Error writing journal, the next save rewrites every file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the captured CSV files and the snapshot (written last, so it is
+     * the newest file), then drop the journal segments they cover.
+     * @return true if every file was written
+     */
+    private boolean writeFiles(PendingSave save) {
+        boolean ok = true;
+        for (Map.Entry<Types.EntityType, List<String>> e : save.files.entrySet()) {
+            ok &= writeFile(e.getKey(), e.getValue());
+        }
+        if (ok && save.snapshot != null) {
+            ok = writeSnapshot(save.snapshot);
+        }
+        if (!ok) {
+            compactionFailed = true;
+            return false;
+        }
+        if (save.full) {
+            compactionFailed = false;
+        }
+        // after a failed save, only a full save may drop the journal: it holds changes no file has yet
+        if (save.sealed >= 0 && !compactionFailed) {
+            try {
+                if (journal != null) journal.deleteThrough(save.sealed);
+                else Journal.deleteSegments(Path.of(DATA_DIR), save.sealed);
+            } catch (IOException e) {
+                System.err.println("Error truncating journal: " + e.getMessage());
             }
-        } catch (IOException e) {
-            System.err.println("Error saving staff: " + e.getMessage());
         }
+        return true;
     }
 
-    /** Save company reps */
-    private void saveCompanyReps(IDataRepo repo) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(COMPANYREP_FILE))) {
-            writer.println("CompanyRepID,Password,Name,CompanyName,Department,Position,Email,Status");
-            for (User user : repo.getAllUsers()) {
-                if (user instanceof CompanyRep r) {
-                    String password = userPasswords.getOrDefault(r.getUserID(), "password");
-                    writer.printf("%s,%s,%s,%s,%s,%s,%s,%s%n",
-                            r.getUserID(),
-                            password,
-                            r.getName(),
-                            r.getCompanyName(),
-                            r.getDepartment(),
-                            r.getPosition(),
-                            r.getUserID(),
-                            r.isApproved() ? "APPROVED" : "PENDING");
+    /** Write a CSV file to a temporary file, sync it, and move it over the old one */
+    private boolean writeFile(Types.EntityType type, List<String> lines) {
+        Path target = Path.of(fileFor(type));
+        Path temp = Path.of(fileFor(type) + ".tmp");
+        try {
+            try (FileOutputStream out = new FileOutputStream(temp.toFile());
+                 PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out)))) {
+                for (String line : lines) {
+                    writer.println(line);
                 }
+                writer.flush();
+                if (writer.checkError()) throw new IOException("write failed");
+                out.getFD().sync();
             }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
-            System.err.println("Error saving company reps: " + e.getMessage());
+            System.err.println("Error saving " + type + ": " + e.getMessage());
+            return false;
         }
+        return true;
     }
 
-    /** Save internships */
-    private void saveInternships(IDataRepo repo) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(INTERNSHIP_FILE))) {
-            writer.println("InternshipID,Title,Description,Level,PreferredMajor,OpenDate,CloseDate,CompanyName,Status,Slots,Confirmed,Visible");
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-            for (Internship i : repo.getAllInternships()) {
-                String majors = String.join(";",
-                        i.getPreferredMajor().stream().map(Enum::toString).toArray(String[]::new));
-                writer.printf("%s,%s,%s,%s,%s,%s,%s,%s,%s,%d,%d,%s%n",
-                        i.getInternshipID(),
-                        i.getTitle(),
-                        i.getDescription(),
-                        i.getLevel(),
-                        majors,
-                        i.getOpenDate() != null ? dateFormat.format(i.getOpenDate()) : "",
-                        i.getCloseDate() != null ? dateFormat.format(i.getCloseDate()) : "",
-                        i.getCompanyName(),
-                        i.getStatus(),
-                        i.getNumberOfSlots(),
-                        i.getConfirmedSlots(),
-                        i.isVisible());
+    /** Write the snapshot to a temporary file, sync it, and move it over the old one */
+    private boolean writeSnapshot(byte[] data) {
+        Path temp = Path.of(SNAPSHOT_FILE + ".tmp");
+        try {
+            try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                out.write(data);
+                out.getFD().sync();
             }
+            Files.move(temp, Path.of(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
-            System.err.println("Error saving internships: " + e.getMessage());
+            System.err.println("Error saving snapshot: " + e.getMessage());
+            return false;
         }
+        snapshotStale = false;
+        return true;
     }
 
-    /** Save applications */
-    private void saveApplications(IDataRepo repo) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(APPLICATION_FILE))) {
-            writer.println("ApplicationID,StudentID,InternshipID,ApplicationStatus,IsAccepted");
-            for (User user : repo.getAllUsers()) {
-                if (user instanceof Student student) {
-                    for (Application app : student.getApplications()) {
-                        writer.printf("%s,%s,%s,%s,%s%n",
-                                app.getApplicationID(),
-                                app.getStudent().getUserID(),
-                                app.getInternship().getInternshipID(),
-                                app.getStatus(),
-                                app.isAccepted());
-                    }
-                }
+    /** Capture the header and every row of one CSV file */
+    private List<String> captureRows(IDataRepo repo, Types.EntityType type) {
+        List<String> lines = new ArrayList<>();
+        lines.add(headerFor(type));
+        switch (type) {
+            case STUDENT -> {
+                for (Student s : repo.students()) lines.add(studentRow(s));
+            }
+            case CAREER_STAFF -> {
+                for (CareerStaff c : repo.careerStaff()) lines.add(staffRow(c));
+            }
+            case COMPANY_REP -> {
+                for (CompanyRep r : repo.companyReps()) lines.add(companyRepRow(r));
+            }
+            case INTERNSHIP -> {
+                for (Internship i : repo.internships()) lines.add(internshipRow(i));
+            }
+            case APPLICATION -> {
+                for (Application app : repo.applications()) lines.add(applicationRow(app));
+            }
+            case WITHDRAWAL -> {
+                for (WithdrawalRequest wr : repo.withdrawals()) lines.add(withdrawalRow(wr));
             }
-        } catch (IOException e) {
-            System.err.println("Error saving applications: " + e.getMessage());
         }
+        return lines;
+    }
+
+    /** CSV file holding one entity type */
+    private static String fileFor(Types.EntityType type) {
+        return switch (type) {
+            case STUDENT -> STUDENT_FILE;
+            case CAREER_STAFF -> STAFF_FILE;
+            case COMPANY_REP -> COMPANYREP_FILE;
+            case INTERNSHIP -> INTERNSHIP_FILE;
+            case APPLICATION -> APPLICATION_FILE;
+            case WITHDRAWAL -> WITHDRAWAL_FILE;
+        };
+    }
+
+    /** CSV header line for one entity type */
+    private static String headerFor(Types.EntityType type) {
+        return switch (type) {
+            case STUDENT -> "StudentID,Password,Name,Major,Year,Email";
+            case CAREER_STAFF -> "StaffID,Password,Name,Role,Department,Email";
+            case COMPANY_REP -> "CompanyRepID,Password,Name,CompanyName,Department,Position,Email,Status";
+            case INTERNSHIP -> "InternshipID,Title,Description,Level,PreferredMajor,OpenDate,CloseDate,CompanyName,Status,Slots,Confirmed,Visible";
+            case APPLICATION -> "ApplicationID,StudentID,InternshipID,ApplicationStatus,IsAccepted";
+            case WITHDRAWAL -> "RequestID,ApplicationID,StudentID,InternshipID,RequestDate,Status";
+        };
+    }
+
+    /** Format any user as a row of its CSV file */
+    private String userRow(User user) {
+        if (user instanceof Student s) return studentRow(s);
+        if (user instanceof CareerStaff c) return staffRow(c);
+        return companyRepRow((CompanyRep) user);
+    }
+
+    /** Format a student as a CSV row */
+    private String studentRow(Student s) {
+        String password = userPasswords.getOrDefault(s.getUserID(), "password");
+        String email = studentEmails.get(s.getUserID());
+        return String.format("%s,%s,%s,%s,%d,%s",
+                s.getUserID(),
+                csv(password),
+                csv(s.getName()),
+                s.getMajor(),
+                s.getYearOfStudy(),
+                csv(email));
+    }
+
+    /** Format a staff member as a CSV row */
+    private String staffRow(CareerStaff c) {
+        String password = userPasswords.getOrDefault(c.getUserID(), "password");
+        return String.format("%s,%s,%s,%s,%s,%s",
+                c.getUserID(),
+                csv(password),
+                csv(c.getName()),
+                c.getUserRole(),
+                csv(c.getDepartment()),
+                c.getUserID() + "@ntu.edu.sg");
+    }
+
+    /** Format a company rep as a CSV row */
+    private String companyRepRow(CompanyRep r) {
+        String password = userPasswords.getOrDefault(r.getUserID(), "password");
+        return String.format("%s,%s,%s,%s,%s,%s,%s,%s",
+                r.getUserID(),
+                csv(password),
+                csv(r.getName()),
+                csv(r.getCompanyName()),
+                csv(r.getDepartment()),
+                csv(r.getPosition()),
+                r.getUserID(),
+                r.isApproved() ? "APPROVED" : "PENDING");
+    }
+
+    /** Format an internship as a CSV row */
+    private String internshipRow(Internship i) {
+        StringJoiner majors = new StringJoiner(";");
+        for (Types.Major major : i.getPreferredMajor()) majors.add(major.name());
+        return String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%d,%d,%s",
+                csv(i.getInternshipID()),
+                csv(i.getTitle()),
+                csv(i.getDescription()),
+                i.getLevel(),
+                majors,
+                formatDay(i.getOpenDay()),
+                formatDay(i.getCloseDay()),
+                csv(i.getCompanyName()),
+                i.getStatus(),
+                i.getNumberOfSlots(),
+                i.getConfirmedSlots(),
+                i.isVisible());
+    }
+
+    /** Format an application as a CSV row */
+    private String applicationRow(Application app) {
+        return String.format("%s,%s,%s,%s,%s",
+                app.getApplicationID(),
+                app.getStudent().getUserID(),
+                app.getInternship().getInternshipID(),
+                app.getStatus(),
+                app.isAccepted());
+    }
+
+    /** Format a withdrawal request as a CSV row */
+    private String withdrawalRow(WithdrawalRequest wr) {
+        return String.format("%s,%s,%s,%s,%s,%s",
+                wr.getRequestID(),
+                wr.getApplication().getApplicationID(),
+                wr.getStudent().getUserID(),
+                wr.getApplication().getInternship().getInternshipID(),
+                wr.getRequestDate().toString(),
+                wr.getStatus().toString());
     }
 
     /** Withdrawal loading */
@@ -474,54 +1151,17 @@ public class FileHandler implements IFileHandler {
             return 0;
         }
         int success = 0, errors = 0;
-        try (BufferedReader br = new BufferedReader(new FileReader(WITHDRAWAL_FILE))) {
-            br.readLine(); // skip header
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(",", -1);
-                if (parts.length < 6) {
+        try (CsvReader row = CsvReader.open(WITHDRAWAL_FILE)) {
+            row.next(); // skip header
+            while (row.next()) {
+                if (row.isBlank()) continue;
+                if (row.fieldCount() < 6) {
                     System.err.println("Error : insufficient fields");
                     errors++;
                     continue;
                 }
                 try {
-                    String requestID = parts[0].trim();
-                    String applicationID = parts[1].trim();
-                    String studentID = parts[2].trim();
-                    String internshipID = parts[3].trim(); // reference only
-                    String requestDateStr = parts[4].trim();
-                    String statusStr = parts[5].trim();
-
-                    LocalDateTime requestDate = LocalDateTime.parse(requestDateStr);
-                    Types.WithdrawalStatus status = Types.WithdrawalStatus.valueOf(statusStr.toUpperCase());
-                    Internship internship = repo.findInternship(internshipID);
-                    if (internship == null) {
-                        System.err.println("Internship " + internshipID + " not found");
-                        errors++;
-                        continue;
-                    }
-                    Application app = internship.getApplications().stream()
-                            .filter(a -> a.getApplicationID().equals(applicationID))
-                            .findFirst()
-                            .orElse(null);
-                    if (app == null) {
-                        System.err.println("Application " + applicationID + " not found");
-                        errors++;
-                        continue;
-                    }
-                    User user = repo.findUser(studentID);
-                    if (!(user instanceof Student)) {
-                        System.err.println("Student " + studentID + " not found");
-                        errors++;
-                        continue;
-                    }
-                    Student student = (Student) user;
-                    WithdrawalRequest wr = new WithdrawalRequest(student, app);
-                    wr.setRequestID(requestID);
-                    wr.setRequestDate(requestDate);
-                    wr.setStatus(status);
-                    repo.addWithdrawal(wr);
+                    repo.addWithdrawal(parseWithdrawal(repo, row));
                     success++;
                 } catch (DateTimeParseException e) {
                     System.err.println("Invalid date format: " + e.getMessage());
@@ -529,6 +1169,9 @@ public class FileHandler implements IFileHandler {
                 } catch (IllegalArgumentException e) {
                     System.err.println("Invalid status: " + e.getMessage());
                     errors++;
+                } catch (IllegalStateException e) {
+                    System.err.println(e.getMessage());
+                    errors++;
                 } catch (Exception e) {
                     System.err.println("Error: " + e.getMessage());
                     errors++;
@@ -545,22 +1188,35 @@ public class FileHandler implements IFileHandler {
         return errors;
     }
 
-    /** Save withdrawal requests */
-    private void saveWithdrawalRequest(IDataRepo repo) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(WITHDRAWAL_FILE))) {
-            writer.println("RequestID,ApplicationID,StudentID,InternshipID,RequestDate,Status");
-            for (WithdrawalRequest wr : repo.getAllWithdrawals()) {
-                writer.printf("%s,%s,%s,%s,%s,%s%n",
-                        wr.getRequestID(),
-                        wr.getApplication().getApplicationID(),
-                        wr.getStudent().getUserID(),
-                        wr.getApplication().getInternship().getInternshipID(),
-                        wr.getRequestDate().toString(),
-                        wr.getStatus().toString());
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving requests: " + e.getMessage());
+    /**
+     * Build a withdrawal request from one CSV row.
+     * @throws IllegalStateException if the internship, application or student is missing
+     */
+    private WithdrawalRequest parseWithdrawal(IDataRepo repo, CsvReader row) {
+        String requestID = row.getString(0);
+        String applicationID = row.getString(1);
+        String studentID = row.getString(2);
+        String internshipID = row.getString(3); // reference only
+
+        LocalDateTime requestDate = LocalDateTime.parse(row.getString(4));
+        Types.WithdrawalStatus status = row.getEnum(5, Types.WithdrawalStatus.values());
+        Internship internship = repo.findInternship(internshipID);
+        if (internship == null) {
+            throw new IllegalStateException("Internship " + internshipID + " not found");
+        }
+        Application app = repo.findApplication(applicationID);
+        if (app == null || app.getInternship() != internship) {
+            throw new IllegalStateException("Application " + applicationID + " not found");
         }
+        Student student = repo.findStudent(studentID);
+        if (student == null) {
+            throw new IllegalStateException("Student " + studentID + " not found");
+        }
+        WithdrawalRequest wr = new WithdrawalRequest(student, app);
+        wr.setRequestID(requestID);
+        wr.setRequestDate(requestDate);
+        wr.setStatus(status);
+        return wr;
     }
 
     /** Update user password in memory */
@@ -581,20 +1237,57 @@ public class FileHandler implements IFileHandler {
         return studentEmails.get(studentID);
     }
 
-    /** Map string to Major enum, with special cases */
-    private Types.Major mapMajor(String majorStr) {
-        Map<String, Types.Major> majorMap = new HashMap<>();
-        for (Types.Major major : Types.Major.values()) {
-            majorMap.put(major.name(), major);
-        }
-        majorMap.put("WKW", Types.Major.WKWSCI);
-        String majorUpper = majorStr.toUpperCase().trim();
-        Types.Major result = majorMap.get(majorUpper);
-        if (result == null) {
-            System.err.println("Unknown major: " + majorStr + ", defaulting to CCDS");
+    /** Map a CSV field to Major enum, with special cases */
+    private Types.Major mapMajor(CsvReader row, int field) {
+        if (row.fieldEquals(field, "WKW")) return Types.Major.WKWSCI;
+        try {
+            return row.getEnum(field, Types.Major.values());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown major: " + row.getString(field) + ", defaulting to CCDS");
             return Types.Major.CCDS;
         }
-        return result;
+    }
+
+    /**
+     * Format an epoch day as {@code yyyy-MM-dd}, the inverse of
+     * {@link CsvReader#getEpochDay}; "" for no date
+     */
+    static String formatDay(int epochDay) {
+        if (epochDay == AppClock.NO_DATE) return "";
+        // civil date from day count, in 400-year eras starting on March 1
+        long z = epochDay + 719468L;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) return LocalDate.ofEpochDay(epochDay).toString();
+        char[] out = new char[10];
+        int y = (int) year;
+        out[0] = (char) ('0' + y / 1000);
+        out[1] = (char) ('0' + y / 100 % 10);
+        out[2] = (char) ('0' + y / 10 % 10);
+        out[3] = (char) ('0' + y % 10);
+        out[4] = '-';
+        out[5] = (char) ('0' + month / 10);
+        out[6] = (char) ('0' + month % 10);
+        out[7] = '-';
+        out[8] = (char) ('0' + day / 10);
+        out[9] = (char) ('0' + day % 10);
+        return new String(out);
+    }
+
+    /** Quote a free-text value for CSV output (RFC 4180) */
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 
     /** Helpers to create empty data files if missing */
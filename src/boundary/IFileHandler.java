@@ -4,8 +4,15 @@ import controller_class.IDataRepo;
 
 /** Abstraction for file loading/saving and credential management. */
 public interface IFileHandler {
+    /** Persistence formats: human-editable CSV files or the binary snapshot. */
+    enum Format { CSV, SNAPSHOT }
+
     boolean loadAllData(IDataRepo repo);
+    boolean loadAllData(IDataRepo repo, Format format);
+    boolean exportData(IDataRepo repo, Format format);
     void saveAllData(IDataRepo repo);
+    ISaveTask prepareSave(IDataRepo repo);
+    void close(IDataRepo repo);
     void updateUserPassword(String userID, String newPassword);
     String getPasswordForUser(String userID);
     String getStudentEmail(String studentID);
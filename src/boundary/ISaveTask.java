@@ -0,0 +1,16 @@
+package boundary;
+
+/**
+ * Disk work of one save, prepared by {@link IFileHandler#prepareSave}.
+ * Everything it writes was copied from the repository when it was prepared,
+ * so it can run on any thread while the repository keeps changing.
+ */
+public interface ISaveTask extends Runnable {
+    /**
+     * Combines this task with a newer one that has not started yet, so one
+     * write covers both.
+     * @param newer a task prepared after this one
+     * @return a task doing the work of both
+     */
+    ISaveTask then(ISaveTask newer);
+}
@@ -0,0 +1,295 @@
+package boundary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only write-ahead journal split into numbered segment files
+ * ({@code journal-<n>.log}).
+ *
+ * Records are appended from any thread and written by a single writer
+ * thread, which drains everything queued since its last write, writes the
+ * batch with one gather write and syncs it with one {@code force}
+ * (group commit). {@link #flush()} waits until every record appended so far
+ * is on disk. {@link #rotate()} seals the current segment so a compactor can
+ * fold it into the data files and then {@link #deleteThrough delete} it.
+ *
+ * Each run appends to a fresh segment, so a record torn by a crash can only
+ * be the last record of a sealed segment.
+ */
+public class Journal implements Closeable {
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    private static final int MAX_BATCH = 1024;
+
+    private final Path dir;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    // Owned by the writer thread
+    private FileChannel channel;
+    private long segment;
+
+    private long appended;               // guarded by this
+    private long synced;                 // guarded by this
+    private final AtomicLong size = new AtomicLong();
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    /** Queue marker asking the writer to seal the current segment */
+    private static final class Rotate {
+        final CompletableFuture<Long> sealed = new CompletableFuture<>();
+    }
+
+    /** Queue marker asking the writer to stop */
+    private static final Object STOP = new Object();
+
+    private Journal(Path dir, long segment, long existingBytes) throws IOException {
+        this.dir = dir;
+        this.segment = segment;
+        this.size.set(existingBytes);
+        this.channel = openSegment(segment);
+        this.writer = new Thread(this::run, "journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Opens the journal in a directory, starting a new segment after any
+     * segments left by earlier runs.
+     * @param dir directory holding the segment files
+     * @return the open journal
+     * @throws IOException if the new segment cannot be created
+     */
+    public static Journal open(String dir) throws IOException {
+        Path path = Path.of(dir);
+        List<Path> existing = segments(path);
+        long last = existing.isEmpty() ? 0 : segmentNumber(existing.get(existing.size() - 1));
+        long bytes = 0;
+        for (Path p : existing) bytes += Files.size(p);
+        return new Journal(path, last + 1, bytes);
+    }
+
+    /**
+     * Lists the segment files in a directory, oldest first.
+     * @param dir directory holding the segment files
+     * @return segment paths in append order
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<Path> segments(Path dir) throws IOException {
+        List<Path> result = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return result;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path p : stream) {
+                if (segmentNumber(p) > 0) result.add(p);
+            }
+        }
+        result.sort((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)));
+        return result;
+    }
+
+    /** @return the number in a segment file name, or -1 if it is not a segment */
+    private static long segmentNumber(Path p) {
+        String name = p.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Queues one record for the next group commit. Returns without waiting
+     * for the write; call {@link #flush()} for durability.
+     * @param record one complete CSV record, without the line break
+     */
+    public void append(String record) {
+        byte[] bytes = (record + "\n").getBytes(StandardCharsets.UTF_8);
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("journal is closed");
+            appended++;
+            queue.add(bytes);
+        }
+    }
+
+    /**
+     * Waits until every record appended so far has been synced to disk.
+     * @throws IOException if the writer failed to write or sync
+     */
+    public void flush() throws IOException {
+        synchronized (this) {
+            long target = appended;
+            while (synced < target && failure == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while flushing journal", e);
+                }
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * Seals the current segment and starts a new one. Every record appended
+     * before this call is in a segment numbered at or below the result.
+     * @return number of the sealed segment
+     * @throws IOException if the segment could not be sealed
+     */
+    public long rotate() throws IOException {
+        Rotate marker = new Rotate();
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("journal is closed");
+            queue.add(marker);
+        }
+        try {
+            return marker.sealed.join();
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes sealed segments whose contents are now in the data files.
+     * @param sealed highest segment number to delete, as returned by {@link #rotate()}
+     * @throws IOException if a segment cannot be deleted
+     */
+    public void deleteThrough(long sealed) throws IOException {
+        size.addAndGet(-deleteSegments(dir, sealed));
+    }
+
+    /**
+     * Deletes the segments in a directory numbered at or below a limit.
+     * @param dir directory holding the segment files
+     * @param sealed highest segment number to delete
+     * @return number of bytes deleted
+     * @throws IOException if a segment cannot be deleted
+     */
+    public static long deleteSegments(Path dir, long sealed) throws IOException {
+        long deleted = 0;
+        for (Path p : segments(dir)) {
+            if (segmentNumber(p) > sealed) break;
+            long bytes = Files.size(p);
+            Files.delete(p);
+            deleted += bytes;
+        }
+        return deleted;
+    }
+
+    /** @return true once a write or sync has failed; nothing is written after that */
+    public boolean hasFailed() { return failure != null; }
+
+    /** @return total bytes written to segments that have not been deleted */
+    public long size() { return size.get(); }
+
+    /** Flushes outstanding records and stops the writer thread. */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            queue.add(STOP);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) throw failure;
+    }
+
+    private FileChannel openSegment(long n) throws IOException {
+        return FileChannel.open(dir.resolve(PREFIX + n + SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /** Writer loop: drain, write, sync, then signal waiters */
+    private void run() {
+        List<Object> batch = new ArrayList<>();
+        List<ByteBuffer> pending = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH);
+            for (Object item : batch) {
+                if (item instanceof byte[] bytes) {
+                    pending.add(ByteBuffer.wrap(bytes));
+                    continue;
+                }
+                commit(pending);
+                if (item instanceof Rotate rotate) {
+                    try {
+                        channel.close();
+                        long sealed = segment;
+                        channel = openSegment(++segment);
+                        rotate.sealed.complete(sealed);
+                    } catch (IOException e) {
+                        fail(e);
+                        rotate.sealed.completeExceptionally(e);
+                    }
+                } else if (item == STOP) {
+                    running = false;
+                }
+            }
+            commit(pending);
+            batch.clear();
+        }
+        try {
+            boolean empty = channel.size() == 0;
+            channel.close();
+            if (empty) Files.deleteIfExists(dir.resolve(PREFIX + segment + SUFFIX));
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /** Writes and syncs the pending records as one group */
+    private void commit(List<ByteBuffer> pending) {
+        if (pending.isEmpty()) return;
+        int count = pending.size();
+        try {
+            if (failure == null) {
+                ByteBuffer[] buffers = pending.toArray(new ByteBuffer[0]);
+                long bytes = 0;
+                for (ByteBuffer b : buffers) bytes += b.remaining();
+                long left = bytes;
+                while (left > 0) left -= channel.write(buffers);
+                channel.force(false);
+                size.addAndGet(bytes);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+        pending.clear();
+        synchronized (this) {
+            synced += count;
+            notifyAll();
+        }
+    }
+
+    private void fail(IOException e) {
+        if (failure == null) failure = e;
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+}
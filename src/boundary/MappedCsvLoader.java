@@ -0,0 +1,169 @@
+package boundary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Parses large CSV files by memory-mapping them and splitting the mapping
+ * into record-aligned chunks that are parsed on separate cores.
+ *
+ * Splitting happens in two parallel passes. The first pass counts quotes
+ * and line breaks in each fixed-size region and remembers where the first
+ * line break would be for either quote state, so a prefix over the regions
+ * gives exact record boundaries even when quoted fields span lines. The
+ * second pass maps each record-aligned chunk and runs a {@link CsvReader}
+ * over it. Results are returned in file order so callers can merge them
+ * into the repository sequentially.
+ */
+public class MappedCsvLoader {
+    private static final long MIN_CHUNK_SIZE = 1L << 20;   // 1 MB
+    private static final long MAX_CHUNK_SIZE = 256L << 20; // keeps each mapping well under 2 GB
+
+    /**
+     * Turns one CSV record into a value. Implementations must not mutate
+     * shared state, since chunks are parsed concurrently.
+     */
+    @FunctionalInterface
+    public interface RowParser<T> {
+        /**
+         * @param row the current record
+         * @return the parsed value, or null to skip the record silently
+         * @throws Exception if the record is invalid
+         */
+        T parse(CsvReader row) throws Exception;
+    }
+
+    /** Outcome of parsing one record: either a value or an error */
+    public static final class Row<T> {
+        private final long lineNumber;
+        private final T value;
+        private final Exception error;
+
+        private Row(long lineNumber, T value, Exception error) {
+            this.lineNumber = lineNumber;
+            this.value = value;
+            this.error = error;
+        }
+
+        public long getLineNumber() { return lineNumber; }
+        public T getValue() { return value; }
+        public Exception getError() { return error; }
+    }
+
+    /** Quote/line statistics of one fixed-size region (first pass) */
+    private static final class Region {
+        long quotes;
+        long newlines;
+        // first line break reached outside quotes, indexed by the quote state at region start
+        final long[] firstBreak = {-1, -1};
+        final long[] linesBefore = new long[2];
+    }
+
+    /**
+     * Parses every data record (the header is skipped) of the given file.
+     * @param path path of the CSV file
+     * @param parser parser applied to each non-blank record
+     * @return parsed rows in file order
+     * @throws IOException if the file cannot be mapped
+     */
+    public static <T> List<Row<T>> parse(String path, RowParser<T> parser) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) return new ArrayList<>();
+
+            int cores = Runtime.getRuntime().availableProcessors();
+            long chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, size / (cores * 4L) + 1));
+            int regionCount = (int) ((size + chunkSize - 1) / chunkSize);
+
+            // Pass 1: scan regions in parallel
+            List<Region> regions = IntStream.range(0, regionCount).parallel()
+                    .mapToObj(k -> scan(channel, k * chunkSize, Math.min(size, (k + 1) * chunkSize)))
+                    .collect(Collectors.toList());
+
+            // Resolve record-aligned chunk starts and their first line numbers
+            List<long[]> chunks = new ArrayList<>(); // {start, firstLine}
+            chunks.add(new long[]{0, 1});
+            int parity = 0;
+            long lines = 0;
+            for (int k = 0; k < regionCount; k++) {
+                Region r = regions.get(k);
+                if (k > 0 && r.firstBreak[parity] >= 0) {
+                    chunks.add(new long[]{r.firstBreak[parity] + 1, lines + r.linesBefore[parity] + 2});
+                }
+                parity ^= (int) (r.quotes & 1);
+                lines += r.newlines;
+            }
+
+            // Pass 2: parse each chunk in parallel, keeping file order
+            List<List<Row<T>>> parsed = IntStream.range(0, chunks.size()).parallel()
+                    .mapToObj(k -> {
+                        long start = chunks.get(k)[0];
+                        long end = k + 1 < chunks.size() ? chunks.get(k + 1)[0] : size;
+                        return parseChunk(channel, start, end, chunks.get(k)[1], k == 0, parser);
+                    })
+                    .collect(Collectors.toList());
+
+            List<Row<T>> result = new ArrayList<>();
+            for (List<Row<T>> rows : parsed) result.addAll(rows);
+            return result;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Region scan(FileChannel channel, long start, long end) {
+        Region r = new Region();
+        try {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            int length = buf.limit();
+            for (int p = 0; p < length; p++) {
+                byte b = buf.get(p);
+                if (b == '"') {
+                    r.quotes++;
+                } else if (b == '\n') {
+                    // the break is outside quotes iff this parity matches the state at region start
+                    int state = (int) (r.quotes & 1);
+                    if (r.firstBreak[state] < 0) {
+                        r.firstBreak[state] = start + p;
+                        r.linesBefore[state] = r.newlines;
+                    }
+                    r.newlines++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return r;
+    }
+
+    private static <T> List<Row<T>> parseChunk(FileChannel channel, long start, long end, long firstLine,
+                                               boolean hasHeader, RowParser<T> parser) {
+        List<Row<T>> rows = new ArrayList<>();
+        if (end <= start) return rows;
+        try {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            CsvReader row = new CsvReader(buf, firstLine - 1);
+            if (hasHeader) row.next();
+            while (row.next()) {
+                if (row.isBlank()) continue;
+                try {
+                    T value = parser.parse(row);
+                    if (value != null) rows.add(new Row<>(row.lineNumber(), value, null));
+                } catch (Exception e) {
+                    rows.add(new Row<>(row.lineNumber(), null, e));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+}
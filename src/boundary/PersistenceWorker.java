@@ -0,0 +1,118 @@
+package boundary;
+
+import controller_class.IDataRepo;
+
+/**
+ * Writes saves on a background thread so that logging out never waits for
+ * the disk.
+ *
+ * Each save is prepared on the calling thread, which copies what has to be
+ * written while the repository is consistent, and is then handed to the
+ * worker. Saves requested while a write is in progress are merged into one
+ * pending save, so a burst of logouts costs at most one extra write.
+ */
+public class PersistenceWorker {
+    private final IFileHandler fileHandler;
+    private final IDataRepo repo;
+
+    private ISaveTask pending;     // guarded by this
+    private boolean closing;       // guarded by this
+    private boolean closed;        // guarded by this
+
+    /**
+     * Starts the worker thread.
+     * @param fileHandler the file handler that prepares and closes saves
+     * @param repo the data repository abstraction to save data from
+     */
+    public PersistenceWorker(IFileHandler fileHandler, IDataRepo repo) {
+        this.fileHandler = fileHandler;
+        this.repo = repo;
+        Thread thread = new Thread(this::run, "persistence-worker");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Prepares a save of the current changes and queues it for the worker.
+     * Returns without waiting for the disk.
+     */
+    public void requestSave() {
+        ISaveTask task = fileHandler.prepareSave(repo);
+        synchronized (this) {
+            if (closing) return; // the final save picks these changes up
+            pending = pending == null ? task : pending.then(task);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Finishes the queued saves, then writes every remaining change to the
+     * data files and closes the file handler. Waits at most the given time;
+     * anything not written by then stays in the journal and is restored on
+     * the next start. Safe to call more than once.
+     * @param timeoutMillis longest time to wait
+     * @return true if everything was written in time
+     */
+    public boolean shutdown(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (this) {
+            closing = true;
+            notifyAll();
+            long left;
+            while (!closed && (left = deadline - System.currentTimeMillis()) > 0) {
+                try {
+                    wait(left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return closed;
+        }
+    }
+
+    /**
+     * Registers a JVM shutdown hook that calls {@link #shutdown}, so changes
+     * are written even if the application is interrupted.
+     * @param timeoutMillis longest time the hook waits
+     */
+    public void addShutdownHook(long timeoutMillis) {
+        Runtime.getRuntime().addShutdownHook(
+                new Thread(() -> shutdown(timeoutMillis), "persistence-shutdown"));
+    }
+
+    /** Worker loop: run the pending save, and close once asked to and idle */
+    private void run() {
+        while (true) {
+            ISaveTask task;
+            synchronized (this) {
+                while (pending == null && !closing) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // keep waiting; shutdown() is the way to stop
+                    }
+                }
+                task = pending;
+                pending = null;
+            }
+            if (task == null) {
+                try {
+                    fileHandler.close(repo);
+                } catch (RuntimeException e) {
+                    System.err.println("Error during final save: " + e.getMessage());
+                }
+                synchronized (this) {
+                    closed = true;
+                    notifyAll();
+                }
+                return;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error saving data: " + e.getMessage());
+            }
+        }
+    }
+}
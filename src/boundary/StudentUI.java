@@ -17,6 +17,7 @@ public class StudentUI {
     private List<Types.Major> filterMajors = new ArrayList<>();
     private Types.InternshipLevel filterLevel = null;
     private Date filterClosingDate = null;
+    private String filterKeywords = null;
 
     /** Constructs a new StudentUI.
      * @param studentController the student controller abstraction
@@ -106,6 +107,7 @@ public class StudentUI {
                 (filterClosingDate == null
                         ? "Any"
                         : new java.text.SimpleDateFormat("yyyy-MM-dd").format(filterClosingDate)));
+        System.out.println("   Keywords: " + (filterKeywords == null ? "Any" : filterKeywords));
 
         // Ask if user wants to change filters
         System.out.print("Would you like to update filters? (yes/no): ");
@@ -160,34 +162,21 @@ public class StudentUI {
                     filterClosingDate = null;
                 }
             }
-        }
-
-        // Apply filters on the eligible internships
-        List<Internship> filtered = new ArrayList<>();
-        for (Internship intern : internships) {
-            // Majors (at least one overlap)
-            if (filterMajors != null && !filterMajors.isEmpty()) {
-                boolean match = false;
-                for (Types.Major m : filterMajors) {
-                    if (intern.getPreferredMajor().contains(m)) {
-                        match = true;
-                        break;
-                    }
-                }
-                if (!match) continue;
-            }
 
-            // Level
-            if (filterLevel != null && intern.getLevel() != filterLevel) continue;
-            
-            // Closing date 
-            if (filterClosingDate != null && !intern.getCloseDate().equals(filterClosingDate)) continue;
-            
-            filtered.add(intern);
+            // Keyword filter (ranked search over title, description and company)
+            System.out.print("Filter by keywords (use word* for prefixes, Enter for any): ");
+            String keywordStr = scanner.nextLine().trim();
+            filterKeywords = keywordStr.isEmpty() ? null : keywordStr;
         }
 
-        // Default ordering: alphabetical by internship title (case-insensitive)
-        filtered.sort((a, b) -> a.getTitle().compareToIgnoreCase(b.getTitle()));
+        // Apply filters on the eligible internships; keyword results stay ranked,
+        // otherwise alphabetical by internship title (case-insensitive)
+        List<Internship> filtered = studentController.findEligibleInternships(currentStudent, new InternshipQuery()
+                .majors(filterMajors)
+                .level(filterLevel)
+                .closesOn(filterClosingDate)
+                .keywords(filterKeywords)
+                .sortBy(filterKeywords == null ? InternshipQuery.Sort.TITLE : InternshipQuery.Sort.NONE));
 
         if (filtered.isEmpty()) {
             System.out.println("No internships match the current filters.");
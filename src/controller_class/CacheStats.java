@@ -0,0 +1,31 @@
+package controller_class;
+
+/** Counters of a result cache at one moment, for sizing it. */
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+    private final int capacity;
+
+    public CacheStats(long hits, long misses, long evictions, int size, int capacity) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.capacity = capacity;
+    }
+
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    /** @return entries pushed out to make room, as opposed to dropped for being stale */
+    public long getEvictions() { return evictions; }
+    public int getSize() { return size; }
+    public int getCapacity() { return capacity; }
+
+    /** @return share of lookups answered from the cache, 0 if there were none */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
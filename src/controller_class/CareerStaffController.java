@@ -1,6 +1,7 @@
 package controller_class;
 
 import java.util.*;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 import entity_class.*;
 
@@ -36,9 +37,7 @@ public class CareerStaffController implements ICareerStaffController {
     /** Get all pending company reps */
     @Override
     public List<CompanyRep> getPendingCompanyReps() {
-        return repo.getAllUsers().stream()
-                .filter(u -> u instanceof CompanyRep)
-                .map(u -> (CompanyRep) u)
+        return repo.companyReps().stream()
                 .filter(r -> !r.isApproved())
                 .collect(Collectors.toList());
     }
@@ -51,6 +50,7 @@ public class CareerStaffController implements ICareerStaffController {
             throw new IllegalArgumentException("User is not a company representative");
         }
         ((CompanyRep) user).setApproved(true);
+        repo.markDirty(user);
     }
 
     /** Reject company rep and remove from system */
@@ -66,35 +66,45 @@ public class CareerStaffController implements ICareerStaffController {
     /** Get all pending internship */
     @Override
     public List<Internship> getPendingInternships() {
-        return repo.getAllInternships().stream()
-                .filter(i -> i.getStatus() == Types.InternshipStatus.PENDING)
-                .collect(Collectors.toList());
+        return new ArrayList<>(repo.internshipsByStatus(Types.InternshipStatus.PENDING));
     }
 
     /** Approve internship created by Company Rep */
     @Override
     public void approveInternship(String internshipID) {
-        Internship internship = repo.findInternship(internshipID);
-        if (internship == null) {
-            throw new IllegalArgumentException("Internship not found");
-        }
-        internship.setStatus(Types.InternshipStatus.APPROVED);
+        decideInternship(internshipID, Types.InternshipStatus.APPROVED);
     }
 
     /** Reject internship created by Company Rep */
     @Override
     public void rejectInternship(String internshipID) {
+        decideInternship(internshipID, Types.InternshipStatus.REJECTED);
+    }
+
+    /** Move a pending internship to its approval decision, once */
+    private void decideInternship(String internshipID, Types.InternshipStatus decision) {
         Internship internship = repo.findInternship(internshipID);
         if (internship == null) {
             throw new IllegalArgumentException("Internship not found");
         }
-        internship.setStatus(Types.InternshipStatus.REJECTED);
+        Lock lock = repo.lockFor(Types.EntityType.INTERNSHIP, internshipID);
+        lock.lock();
+        try {
+            // another session may have decided it since the pending list was shown
+            if (internship.getStatus() != Types.InternshipStatus.PENDING) {
+                throw new IllegalStateException("Internship is no longer pending");
+            }
+            internship.setStatus(decision);
+            repo.markDirty(Types.EntityType.INTERNSHIP, internshipID);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /** Get all pending withdrawal requests */
     @Override
     public List<WithdrawalRequest> getPendingWithdrawals() {
-        return repo.getAllWithdrawals().stream()
+        return repo.withdrawals().stream()
                 .filter(w -> w.getStatus() == Types.WithdrawalStatus.PENDING)
                 .collect(Collectors.toList());
     }
@@ -106,18 +116,36 @@ public class CareerStaffController implements ICareerStaffController {
         if (wr == null) {
             throw new IllegalArgumentException("Withdrawal request not found");
         }
-        wr.setStatus(approve ? Types.WithdrawalStatus.APPROVED : Types.WithdrawalStatus.REJECTED);
-
-        if (approve) {
-            Application app = wr.getApplication();
-            app.withdraw();
-            if (app.isAccepted()) {
-                app.getInternship().removeSlot(app.getStudent());
-                app.getStudent().setAcceptedInternship(null);
+        Lock lock = repo.lockFor(Types.EntityType.STUDENT, wr.getStudent().getUserID());
+        lock.lock();
+        try {
+            if (wr.getStatus() != Types.WithdrawalStatus.PENDING) {
+                throw new IllegalStateException("Withdrawal request has already been processed");
+            }
+            wr.setStatus(approve ? Types.WithdrawalStatus.APPROVED : Types.WithdrawalStatus.REJECTED);
+            repo.markDirty(Types.EntityType.WITHDRAWAL, requestID);
+
+            if (approve) {
+                Application app = wr.getApplication();
+                app.withdraw();
+                repo.markDirty(Types.EntityType.APPLICATION, app.getApplicationID());
+                if (app.isAccepted()) {
+                    app.getInternship().removeSlot(app.getStudent());
+                    app.getStudent().setAcceptedInternship(null);
+                    repo.markDirty(Types.EntityType.INTERNSHIP, app.getInternship().getInternshipID());
+                }
             }
+        } finally {
+            lock.unlock();
         }
     }
 
+    /** Keyword search over all internships, best match first */
+    @Override
+    public List<Internship> searchInternships(String keywords) {
+        return repo.searchInternships(keywords);
+    }
+
     /** Filter Internships by criteria */
     @Override
     public List<Internship> getFilteredInternships(List<Types.Major> majors,
@@ -126,19 +154,25 @@ public class CareerStaffController implements ICareerStaffController {
                                                    Date open,
                                                    Date close,
                                                    Types.InternshipStatus status) {
-        return repo.getAllInternships().stream()
-                .filter(i -> status == null || i.getStatus() == status)
-                .filter(i -> level == null || i.getLevel() == level)
-                .filter(i -> majors == null || majors.isEmpty() ||
-                        majors.stream().anyMatch(m -> i.getPreferredMajor().contains(m)))
-                .filter(i -> company == null || company.isEmpty() ||
-                        i.getCompanyName().toLowerCase().contains(company.toLowerCase()))
-                // open on or after specified date
-                .filter(i -> open == null ||
-                        (i.getOpenDate() != null && !i.getOpenDate().before(open)))
-                // closes on or before specified date
-                .filter(i -> close == null ||
-                        (i.getCloseDate() != null && !i.getCloseDate().after(close)))
-                .collect(Collectors.toList());
+        return repo.findInternships(new InternshipQuery()
+                .majors(majors)
+                .companyContains(company)
+                .level(level)
+                // open on or after / closes on or before the specified dates
+                .opensFrom(open)
+                .closesBy(close)
+                .status(status));
+    }
+
+    /** Run a listing query over all internships */
+    @Override
+    public List<Internship> findInternships(InternshipQuery query) {
+        return repo.findInternships(query);
+    }
+
+    /** Pin the current repository version for a report */
+    @Override
+    public RepoSnapshot getSnapshot() {
+        return repo.snapshot();
     }
 }
@@ -1,7 +1,7 @@
 package controller_class;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.Lock;
 import entity_class.*;
 
 /**
@@ -28,30 +28,36 @@ public class CompanyRepController implements ICompanyRepController {
     public Internship createInternship(CompanyRep rep, String title, String description,
                                        Types.InternshipLevel level, List<Types.Major> majors,
                                        Date openDate, Date closeDate, int slots) {
-        // Validate rep can create more
-        if (!rep.canCreateMoreInternships()) {
-            throw new IllegalStateException("Maximum number of approved internships reached");
+        Lock lock = repo.lockFor(Types.EntityType.COMPANY_REP, rep.getUserID());
+        lock.lock();
+        try {
+            // Validate rep can create more
+            if (!rep.canCreateMoreInternships()) {
+                throw new IllegalStateException("Maximum number of approved internships reached");
+            }
+
+            // Validate rep is approved
+            if (!rep.isApproved()) {
+                throw new IllegalStateException("Company representative not approved yet");
+            }
+
+            // Generate internship ID
+            String id = rep.getCompanyName().replaceAll("\\s+", "") +
+                    "-" + rep.getUserID().split("@")[0] +
+                    "-" + (rep.getCreatedInternships().size() + 1);
+
+            Internship internship = new Internship(id, title, description, level, majors,
+                    openDate, closeDate, rep.getCompanyName(), rep, slots
+            );
+
+            // Add to rep's list and data repo
+            rep.addCreatedInternship(internship);
+            repo.addInternship(internship);
+
+            return internship;
+        } finally {
+            lock.unlock();
         }
-
-        // Validate rep is approved
-        if (!rep.isApproved()) {
-            throw new IllegalStateException("Company representative not approved yet");
-        }
-
-        // Generate internship ID
-        String id = rep.getCompanyName().replaceAll("\\s+", "") +
-                "-" + rep.getUserID().split("@")[0] +
-                "-" + (rep.getCreatedInternships().size() + 1);
-
-        Internship internship = new Internship(id, title, description, level, majors,
-                openDate, closeDate, rep.getCompanyName(), rep, slots
-        );
-
-        // Add to rep's list and data repo
-        rep.getCreatedInternships().add(internship);
-        repo.addInternship(internship);
-
-        return internship;
     }
 
     /**
@@ -62,13 +68,17 @@ public class CompanyRepController implements ICompanyRepController {
         return new ArrayList<>(rep.getCreatedInternships());
     }
 
+    /** #15 with the listing filters applied to the rep's own internships */
+    @Override
+    public List<Internship> viewInternships(CompanyRep rep, InternshipQuery query) {
+        return repo.findInternships(query.createdBy(rep));
+    }
+
     /** #14: Company Representatives can view pending, approved, or rejected
      * status updates for their submitted opportunities */
     @Override
     public List<Internship>  viewInternshipByStatus(CompanyRep rep, Types.InternshipStatus status) {
-        return rep.getCreatedInternships().stream()
-                .filter(i -> i.getStatus() == status)
-                .collect(Collectors.toList());
+        return repo.findInternships(new InternshipQuery().createdBy(rep).status(status));
     }
 
     /** #16: Restriction on Editing Approved Opportunities
@@ -80,41 +90,45 @@ public class CompanyRepController implements ICompanyRepController {
                                  Date openDate, Date closeDate,
                                  Integer numberOfSlots) {
         Internship internship = findRepInternship(rep, internshipID);
-        if (internship.getStatus() != Types.InternshipStatus.PENDING) {
-            throw new IllegalStateException("Cannot edit internship after approval decision");
+        Lock lock = lockPending(internship, "Cannot edit internship after approval decision");
+        try {
+            // Update fields if provided
+            if (title != null) internship.setTitle(title);
+            if (description != null) internship.setDescription(description);
+            if (level != null) internship.setLevel(level);
+            if (openDate != null) internship.setOpenDate(openDate);
+            if (closeDate != null) internship.setCloseDate(closeDate);
+            if (numberOfSlots != null) internship.setNumberOfSlots(numberOfSlots);
+            repo.markDirty(Types.EntityType.INTERNSHIP, internshipID);
+        } finally {
+            lock.unlock();
         }
-
-        // Update fields if provided
-        if (title != null) internship.setTitle(title);
-        if (description != null) internship.setDescription(description);
-        if (level != null) internship.setLevel(level);
-        if (openDate != null) internship.setOpenDate(openDate);
-        if (closeDate != null) internship.setCloseDate(closeDate);
-        if (numberOfSlots != null) internship.setNumberOfSlots(numberOfSlots);
     }
 
     @Override
     public void addPreferredMajor(CompanyRep rep, String internshipID, Types.Major major) {
         Internship internship = findRepInternship(rep, internshipID);
-
-        if (internship.getStatus() != Types.InternshipStatus.PENDING) {
-            throw new IllegalStateException("Cannot edit internship after approval decision");
-        }
-
-        if (!internship.getPreferredMajor().contains(major)) {
-            internship.getPreferredMajor().add(major);
+        Lock lock = lockPending(internship, "Cannot edit internship after approval decision");
+        try {
+            if (internship.addPreferredMajor(major)) {
+                repo.markDirty(Types.EntityType.INTERNSHIP, internshipID);
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public void removePreferredMajor(CompanyRep rep, String internshipID, Types.Major major) {
         Internship internship = findRepInternship(rep, internshipID);
-
-        if (internship.getStatus() != Types.InternshipStatus.PENDING) {
-            throw new IllegalStateException("Cannot edit internship after approval decision");
-        }
-        if (!internship.getPreferredMajor().remove(major)) {
-            throw new IllegalArgumentException("Major not in preferred list");
+        Lock lock = lockPending(internship, "Cannot edit internship after approval decision");
+        try {
+            if (!internship.removePreferredMajor(major)) {
+                throw new IllegalArgumentException("Major not in preferred list");
+            }
+            repo.markDirty(Types.EntityType.INTERNSHIP, internshipID);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -124,8 +138,8 @@ public class CompanyRepController implements ICompanyRepController {
     // View all applications for a specific internship
     @Override
     public List<Application> viewApplications(CompanyRep rep, String internshipID) {
-        Internship internship = findRepInternship(rep, internshipID);
-        return new ArrayList<>(internship.getApplications());
+        findRepInternship(rep, internshipID);
+        return repo.getApplicationsByInternship(internshipID);
     }
 
     // Process application outcome (mark SUCCESSFUL/UNSUCCESSFUL)
@@ -133,43 +147,74 @@ public class CompanyRepController implements ICompanyRepController {
     public void processApplication(CompanyRep rep, String internshipID,
                                    String applicationID, Types.ApplicationStatus decision) {
         Internship internship = findRepInternship(rep, internshipID);
-        Application app = internship.getApplications().stream()
-                .filter(a -> a.getApplicationID().equals(applicationID))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Application not found"));
-        app.updateStatus(decision);
+        Application app = repo.findApplication(applicationID);
+        if (app == null || app.getInternship() != internship) {
+            throw new IllegalArgumentException("Application not found");
+        }
+        Lock lock = repo.lockFor(Types.EntityType.STUDENT, app.getStudent().getUserID());
+        lock.lock();
+        try {
+            app.updateStatus(decision);
+            repo.markDirty(Types.EntityType.APPLICATION, applicationID);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /** #20: Delete Internship Opportunity Listings */
     @Override
     public void deleteInternship(CompanyRep rep, String internshipID) {
         Internship internship = findRepInternship(rep, internshipID);
-        if (internship.getStatus() != Types.InternshipStatus.PENDING) {
-            throw new IllegalStateException("Cannot delete internship after approval decision");
-        }
-
-        // Withdraw all applications
-        for (Application app : internship.getApplications()) {
-            app.withdraw();
+        Lock lock = lockPending(internship, "Cannot delete internship after approval decision");
+        try {
+            // Withdraw all applications
+            for (Application app : internship.getApplications()) {
+                app.withdraw();
+                repo.markDirty(Types.EntityType.APPLICATION, app.getApplicationID());
+            }
+
+            // Remove from rep and repository
+            rep.removeCreatedInternship(internshipID);
+            repo.removeInternship(internshipID);
+        } finally {
+            lock.unlock();
         }
-
-        // Remove from rep and repository
-        rep.getCreatedInternships().remove(internship);
-        repo.removeInternship(internshipID);
     }
 
     /** #22: Toggle Internship Opportunity Visibility*/
     @Override
     public void toggleVisibility(CompanyRep rep, String internshipID) {
         Internship internship = findRepInternship(rep, internshipID);
-        internship.setVisible(!internship.isVisible());
+        // visibility may change after approval, so only the flip itself is serialized
+        Lock lock = repo.lockFor(Types.EntityType.INTERNSHIP, internshipID);
+        lock.lock();
+        try {
+            internship.setVisible(!internship.isVisible());
+            repo.markDirty(Types.EntityType.INTERNSHIP, internshipID);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Helpers
+    /**
+     * Take the internship's lock, the one staff decisions take, and check it
+     * is still pending; a decision made since the caller looked is seen here.
+     * @return the held lock, for the caller to release
+     */
+    private Lock lockPending(Internship internship, String message) {
+        Lock lock = repo.lockFor(Types.EntityType.INTERNSHIP, internship.getInternshipID());
+        lock.lock();
+        if (internship.getStatus() != Types.InternshipStatus.PENDING) {
+            lock.unlock();
+            throw new IllegalStateException(message);
+        }
+        return lock;
     }
 
-    // Helper
     private Internship findRepInternship(CompanyRep rep, String internshipID) {
-        return rep.getCreatedInternships().stream()
-                .filter(i -> i.getInternshipID().equals(internshipID))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Internship not found"));
+        Internship internship = rep.findInternshipByID(internshipID);
+        if (internship == null) throw new IllegalArgumentException("Internship not found");
+        return internship;
     }
 }
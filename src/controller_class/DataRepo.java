@@ -2,40 +2,252 @@ package controller_class;
 
 import entity_class.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 
-/** Centralised repository; implements IDataRepo. */
+/**
+ * Centralised repository; implements IDataRepo. Safe to share between
+ * sessions: entities are stored in concurrent maps, so lookups by ID never
+ * block. The indexes built on top of them are guarded by one read-write
+ * lock, and a change to an indexed internship field, a rep's approval or
+ * a withdrawal's status holds its write lock from the observer's
+ * beforeChange to afterChange, so readers never see an internship half
+ * re-indexed or a count half updated. An entity's own lock is always taken
+ * before the write lock, never while holding it.
+ */
 public class DataRepo implements IDataRepo {
-    private static DataRepo instance;
+    private static final int QUERY_CACHE_SIZE = 128;
+    private static final int LOCK_STRIPES = 64;
     private final Map<String, User> userMap;
+    // The same users partitioned by role
+    private final Map<String, Student> studentMap;
+    private final Map<String, CompanyRep> companyRepMap;
+    private final Map<String, CareerStaff> staffMap;
     private final Map<String, Internship> internshipMap;
     private final Map<String, WithdrawalRequest> withdrawalMap;
+    // Guards every index below, up to the application lists
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    // Internships by status, level and company name, kept current through IInternshipObserver
+    private final Map<Types.InternshipStatus, Set<Internship>> internshipsByStatus;
+    private final Map<Types.InternshipLevel, Set<Internship>> internshipsByLevel;
+    private final Map<String, Set<Internship>> internshipsByCompany;
+    private final EligibilityIndex eligibility;
+    private final DateIndex internshipDates;
+    private final TextIndex internshipText;
+    private final IInternshipObserver internshipIndexer;
+    // Live counts for the statistics screen, kept current through IStatusObserver
+    private final AtomicInteger approvedReps = new AtomicInteger();
+    private final Map<Types.WithdrawalStatus, AtomicInteger> withdrawalCounts;
+    private final IStatusObserver<CompanyRep> repCounter;
+    private final IStatusObserver<WithdrawalRequest> withdrawalCounter;
+    // Bumped on every internship index change; cached listings from older versions are stale
+    private long internshipVersion;
+    private final QueryCache queryCache;
+    // Immutable copy of each internship by ID, replaced on every change; a snapshot keeps the current version
+    private PersistentSortedMap<String, InternshipRecord> internshipRecords = PersistentSortedMap.empty();
+    // Bumped on every change a snapshot shows; the last snapshot taken is reused until it moves
+    private final AtomicLong version = new AtomicLong();
+    private volatile RepoSnapshot published;
+    // Applications by ID, with indexes by student and internship ID
+    private final Map<String, Application> applicationMap;
+    private final Map<String, List<Application>> applicationsByStudent;
+    private final Map<String, List<Application>> applicationsByInternship;
+    // Company reps by company name, in registration order
+    private final Map<String, List<CompanyRep>> companyIndex;
+    // Substring lookup on rep names and on internship company names
+    private final TrigramIndex<CompanyRep> repNames;
+    private final TrigramIndex<Internship> internshipCompanies;
+    // Read-only live views handed out by users(), internships(), ...
+    private final Collection<User> userView;
+    private final Collection<Student> studentView;
+    private final Collection<CompanyRep> companyRepView;
+    private final Collection<CareerStaff> staffView;
+    private final Collection<Internship> internshipView;
+    private final Collection<WithdrawalRequest> withdrawalView;
+    private final Collection<Application> applicationView;
+    // IDs changed since the last save, per entity type
+    private final Map<Types.EntityType, Set<String>> dirty;
+    private volatile IChangeListener changeListener;
+    private final StripedLocks entityLocks = new StripedLocks(LOCK_STRIPES);
 
     /**
      * Private constructor
      */
     private DataRepo() {
-        this.userMap = new HashMap<>();
-        this.internshipMap = new HashMap<>();
-        this.withdrawalMap = new HashMap<>();
+        this.userMap = new ConcurrentHashMap<>();
+        this.studentMap = new ConcurrentHashMap<>();
+        this.companyRepMap = new ConcurrentHashMap<>();
+        this.staffMap = new ConcurrentHashMap<>();
+        this.internshipMap = new ConcurrentHashMap<>();
+        this.withdrawalMap = new ConcurrentHashMap<>();
+        this.internshipsByStatus = new EnumMap<>(Types.InternshipStatus.class);
+        for (Types.InternshipStatus s : Types.InternshipStatus.values()) internshipsByStatus.put(s, new LinkedHashSet<>());
+        this.internshipsByLevel = new EnumMap<>(Types.InternshipLevel.class);
+        for (Types.InternshipLevel l : Types.InternshipLevel.values()) internshipsByLevel.put(l, new LinkedHashSet<>());
+        this.internshipsByCompany = new HashMap<>();
+        this.eligibility = new EligibilityIndex();
+        this.internshipDates = new DateIndex();
+        this.internshipText = new TextIndex();
+        this.internshipCompanies = new TrigramIndex<>();
+        this.internshipIndexer = new IInternshipObserver() {
+            @Override
+            public void beforeChange(Internship internship) {
+                indexLock.writeLock().lock();
+                try {
+                    unindexInternship(internship);
+                } catch (RuntimeException | Error e) {
+                    indexLock.writeLock().unlock(); // afterChange is not called when this throws
+                    throw e;
+                }
+            }
+
+            @Override
+            public void afterChange(Internship internship) {
+                try {
+                    indexInternship(internship);
+                } finally {
+                    indexLock.writeLock().unlock();
+                }
+            }
+        };
+        this.withdrawalCounts = new EnumMap<>(Types.WithdrawalStatus.class);
+        for (Types.WithdrawalStatus s : Types.WithdrawalStatus.values()) withdrawalCounts.put(s, new AtomicInteger());
+        // Both count only entities still stored: one removed since it was attached is left uncounted
+        this.repCounter = new IStatusObserver<>() {
+            @Override
+            public void beforeChange(CompanyRep rep) {
+                indexLock.writeLock().lock();
+                try {
+                    if (companyRepMap.get(rep.getUserID()) == rep) countRep(rep, -1);
+                } catch (RuntimeException | Error e) {
+                    indexLock.writeLock().unlock();
+                    throw e;
+                }
+            }
+
+            @Override
+            public void afterChange(CompanyRep rep) {
+                try {
+                    if (companyRepMap.get(rep.getUserID()) == rep) countRep(rep, 1);
+                    version.incrementAndGet();
+                } finally {
+                    indexLock.writeLock().unlock();
+                }
+            }
+        };
+        this.withdrawalCounter = new IStatusObserver<>() {
+            @Override
+            public void beforeChange(WithdrawalRequest request) {
+                indexLock.writeLock().lock();
+                try {
+                    if (withdrawalMap.get(request.getRequestID()) == request) countWithdrawal(request, -1);
+                } catch (RuntimeException | Error e) {
+                    indexLock.writeLock().unlock();
+                    throw e;
+                }
+            }
+
+            @Override
+            public void afterChange(WithdrawalRequest request) {
+                try {
+                    if (withdrawalMap.get(request.getRequestID()) == request) countWithdrawal(request, 1);
+                    version.incrementAndGet();
+                } finally {
+                    indexLock.writeLock().unlock();
+                }
+            }
+        };
+        this.applicationMap = new ConcurrentHashMap<>();
+        this.applicationsByStudent = new HashMap<>();
+        this.applicationsByInternship = new HashMap<>();
+        this.companyIndex = new HashMap<>();
+        this.repNames = new TrigramIndex<>();
+        this.queryCache = new QueryCache(QUERY_CACHE_SIZE);
+        this.dirty = new ConcurrentHashMap<>();
+        this.userView = Collections.unmodifiableCollection(userMap.values());
+        this.studentView = Collections.unmodifiableCollection(studentMap.values());
+        this.companyRepView = Collections.unmodifiableCollection(companyRepMap.values());
+        this.staffView = Collections.unmodifiableCollection(staffMap.values());
+        this.internshipView = Collections.unmodifiableCollection(internshipMap.values());
+        this.withdrawalView = Collections.unmodifiableCollection(withdrawalMap.values());
+        this.applicationView = Collections.unmodifiableCollection(applicationMap.values());
+    }
+
+    /** Created on first use; class initialization makes that thread-safe */
+    private static final class Holder {
+        static final DataRepo INSTANCE = new DataRepo();
     }
 
     /**
      * Get instance
      */
     public static DataRepo getInstance() {
-        if (instance == null) {
-            instance = new DataRepo();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
+    @Override
+    public Lock lockFor(Types.EntityType type, String id) { return entityLocks.get(type, id); }
+
     /** User operations */
 
     @Override
-    public void addUser(User user) { userMap.put(user.getUserID(), user); }
+    public void addUser(User user) {
+        // attach before the write lock: setApproved holds the rep's lock, then takes the write lock
+        if (user instanceof CompanyRep rep) rep.setObserver(repCounter);
+        indexLock.writeLock().lock();
+        try {
+            User replaced = userMap.put(user.getUserID(), user);
+            if (replaced != null) unindexUser(replaced);
+            if (user instanceof Student student) {
+                studentMap.put(student.getUserID(), student);
+            } else if (user instanceof CompanyRep rep) {
+                companyRepMap.put(rep.getUserID(), rep);
+                companyIndex.computeIfAbsent(rep.getCompanyName(), c -> new ArrayList<>()).add(rep);
+                repNames.add(rep.getName(), rep);
+                countRep(rep, 1);
+            } else if (user instanceof CareerStaff staff) {
+                staffMap.put(staff.getUserID(), staff);
+            }
+            version.incrementAndGet();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        markDirty(user);
+    }
 
     @Override
-    public void removeUser(String userID) { userMap.remove(userID); }
+    public void removeUser(String userID) {
+        User removed;
+        indexLock.writeLock().lock();
+        try {
+            removed = userMap.remove(userID);
+            if (removed != null) {
+                unindexUser(removed);
+                version.incrementAndGet();
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        if (removed != null) markDirty(removed);
+    }
+
+    /** Drop a user from the role store and company index */
+    private void unindexUser(User user) {
+        if (user instanceof CompanyRep rep) {
+            companyRepMap.remove(rep.getUserID());
+            removeFromIndex(companyIndex, rep.getCompanyName(), rep);
+            repNames.remove(rep.getName(), rep);
+            countRep(rep, -1); // its observer stays attached but no longer counts it
+        } else if (user instanceof Student) {
+            studentMap.remove(user.getUserID());
+        } else if (user instanceof CareerStaff) {
+            staffMap.remove(user.getUserID());
+        }
+    }
 
     @Override
     public User findUser(String userID) { return userMap.get(userID); }
@@ -43,13 +255,87 @@ public class DataRepo implements IDataRepo {
     @Override
     public List<User> getAllUsers() { return new ArrayList<>(userMap.values()); }
 
+    @Override
+    public Collection<User> users() { return userView; }
+
+    @Override
+    public Student findStudent(String userID) { return studentMap.get(userID); }
+
+    @Override
+    public Collection<Student> students() { return studentView; }
+
+    @Override
+    public Collection<CompanyRep> companyReps() { return companyRepView; }
+
+    @Override
+    public Collection<CareerStaff> careerStaff() { return staffView; }
+
+    @Override
+    public int countApprovedCompanyReps() { return read(approvedReps::get); }
+
+    private void countRep(CompanyRep rep, int delta) {
+        if (rep.isApproved()) approvedReps.addAndGet(delta);
+    }
+
+    @Override
+    public CompanyRep findCompanyRep(String companyName) {
+        indexLock.readLock().lock();
+        try {
+            List<CompanyRep> reps = companyIndex.get(companyName);
+            return reps == null ? null : reps.get(0);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<CompanyRep> getCompanyReps(String companyName) {
+        indexLock.readLock().lock();
+        try {
+            return new ArrayList<>(companyIndex.getOrDefault(companyName, Collections.emptyList()));
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
     /** Internship operations */
 
     @Override
-    public void addInternship(Internship internship) { internshipMap.put(internship.getInternshipID(), internship); }
+    public void addInternship(Internship internship) {
+        indexLock.writeLock().lock();
+        try {
+            Internship replaced = internshipMap.put(internship.getInternshipID(), internship);
+            if (replaced != null) {
+                replaced.setObserver(null);
+                unindexInternship(replaced);
+            }
+            indexInternship(internship);
+            internship.setObserver(internshipIndexer);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        markDirty(Types.EntityType.INTERNSHIP, internship.getInternshipID());
+    }
 
     @Override
-    public void removeInternship(String internshipID) { internshipMap.remove(internshipID); }
+    public void removeInternship(String internshipID) {
+        indexLock.writeLock().lock();
+        try {
+            Internship removed = internshipMap.remove(internshipID);
+            if (removed == null) return;
+            removed.setObserver(null);
+            unindexInternship(removed);
+            internshipRecords = internshipRecords.remove(internshipID);
+            version.incrementAndGet();
+            markDirty(Types.EntityType.INTERNSHIP, internshipID);
+            // applications of a deleted internship are no longer stored
+            for (Application app : getApplicationsByInternship(internshipID)) {
+                removeApplication(app.getApplicationID());
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
 
     @Override
     public Internship findInternship(String internshipID) { return internshipMap.get(internshipID); }
@@ -57,14 +343,429 @@ public class DataRepo implements IDataRepo {
     @Override
     public List<Internship> getAllInternships() { return new ArrayList<>(internshipMap.values()); }
 
+    @Override
+    public Collection<Internship> internships() { return internshipView; }
+
+    @Override
+    public Collection<Internship> internshipsByStatus(Types.InternshipStatus status) {
+        return read(() -> List.copyOf(internshipsByStatus.get(status)));
+    }
+
+    @Override
+    public int countInternships(Types.InternshipStatus status) { return read(() -> internshipsByStatus.get(status).size()); }
+
+    @Override
+    public Collection<Internship> internshipsByLevel(Types.InternshipLevel level) {
+        return read(() -> List.copyOf(internshipsByLevel.get(level)));
+    }
+
+    @Override
+    public Collection<Internship> internshipsByCompany(String companyName) {
+        return read(() -> {
+            Set<Internship> internships = internshipsByCompany.get(companyName);
+            return internships == null ? List.<Internship>of() : List.copyOf(internships);
+        });
+    }
+
+    @Override
+    public List<Internship> findOpenInternships(Types.Major major, Set<Types.InternshipLevel> levels) {
+        int today = AppClock.today();
+        return read(() -> eligibility.find(major, levels, today));
+    }
+
+    @Override
+    public List<Internship> findInternshipsOpeningFrom(Date from) {
+        int day = AppClock.toEpochDay(from);
+        return read(() -> internshipDates.opensFrom(day));
+    }
+
+    @Override
+    public List<Internship> findInternshipsClosingBy(Date to) {
+        int day = AppClock.toEpochDay(to);
+        return read(() -> internshipDates.closesBy(day));
+    }
+
+    @Override
+    public List<Internship> findInternshipsOpenAt(Date time) {
+        int day = AppClock.toEpochDay(time);
+        return read(() -> internshipDates.openAt(day));
+    }
+
+    @Override
+    public List<Internship> searchInternships(String query) { return read(() -> internshipText.search(query)); }
+
+    @Override
+    public List<Internship> findInternshipsByCompanySubstring(String fragment) {
+        if (fragment.length() >= TrigramIndex.MIN_QUERY) return read(() -> internshipCompanies.find(fragment));
+        String folded = TrigramIndex.fold(fragment);
+        List<Internship> result = new ArrayList<>();
+        for (Internship i : internshipMap.values()) {
+            if (i.getCompanyName() != null && TrigramIndex.fold(i.getCompanyName()).contains(folded)) result.add(i);
+        }
+        return result;
+    }
+
+    @Override
+    public List<CompanyRep> findCompanyRepsByNameSubstring(String fragment) {
+        if (fragment.length() >= TrigramIndex.MIN_QUERY) return read(() -> repNames.find(fragment));
+        String folded = TrigramIndex.fold(fragment);
+        List<CompanyRep> result = new ArrayList<>();
+        for (CompanyRep rep : companyRepMap.values()) {
+            if (TrigramIndex.fold(rep.getName()).contains(folded)) result.add(rep);
+        }
+        return result;
+    }
+
+    /**
+     * Answers a query from the result cache when nothing it could depend on
+     * has changed, and plans it otherwise. Results are read-only.
+     */
+    @Override
+    public List<Internship> findInternships(InternshipQuery query) {
+        List<Object> key = query.cacheKey();
+        int today = AppClock.today();
+        return read(() -> {
+            List<Internship> result = queryCache.get(key, internshipVersion, today);
+            if (result != null) return result;
+            result = Collections.unmodifiableList(plan(query, today));
+            // "open today" answers last only until the next window opens or closes
+            long until = query.getOpenTo() != null ? eligibility.stableUntil(today) : Long.MAX_VALUE;
+            queryCache.put(key, result, internshipVersion, today, until);
+            return result;
+        });
+    }
+
+    /** Run a lookup on the indexes under the read lock */
+    private <T> T read(Supplier<T> lookup) {
+        indexLock.readLock().lock();
+        try {
+            return lookup.get();
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public CacheStats getQueryCacheStats() { return queryCache.stats(); }
+
+    /**
+     * Reuses the last snapshot while the version has not moved. Otherwise
+     * takes the current version of the record map, which later changes never
+     * touch, and the counts under the read lock; none of it is copied, so
+     * writers wait only for a handful of reads whatever the repository size.
+     * Every change a snapshot shows updates its records or counts and bumps
+     * the version inside one write-locked step, so a snapshot never holds a
+     * half-applied change, and a pinned one is reused only while it is current.
+     */
+    @Override
+    public RepoSnapshot snapshot() {
+        RepoSnapshot pinned = published;
+        if (pinned != null && pinned.getVersion() == version.get()) return pinned;
+        RepoSnapshot taken = read(() -> {
+            long current = version.get(); // stable here: every bump happens under the write lock
+            Map<Types.InternshipStatus, Integer> internshipCounts = new EnumMap<>(Types.InternshipStatus.class);
+            for (Types.InternshipStatus s : Types.InternshipStatus.values()) internshipCounts.put(s, internshipsByStatus.get(s).size());
+            Map<Types.WithdrawalStatus, Integer> withdrawals = new EnumMap<>(Types.WithdrawalStatus.class);
+            for (Types.WithdrawalStatus s : Types.WithdrawalStatus.values()) withdrawals.put(s, withdrawalCounts.get(s).get());
+            return new RepoSnapshot(current, internshipRecords, internshipCounts, withdrawals,
+                    studentMap.size(), companyRepMap.size(), approvedReps.get(), staffMap.size(), userMap.size());
+        });
+        published = taken;
+        return taken;
+    }
+
+    /**
+     * Plans a query: a keyword ranking or a rep's own list drives the query
+     * when given; otherwise the smallest of the status, level, company and
+     * eligibility postings does, falling back to a date range and then to a
+     * full scan. The other status and level postings are intersected by
+     * membership, and only the criteria no index covered are tested on the
+     * survivors.
+     */
+    private List<Internship> plan(InternshipQuery query, int today) {
+        Set<InternshipQuery.Criterion> covered = EnumSet.noneOf(InternshipQuery.Criterion.class);
+        Collection<Internship> driver = null;
+        List<Collection<Internship>> probes = new ArrayList<>();
+
+        if (query.getKeywords() != null) {
+            driver = internshipText.search(query.getKeywords());
+            covered.add(InternshipQuery.Criterion.KEYWORDS);
+        } else if (query.getOwner() != null) {
+            driver = query.getOwner().getCreatedInternships();
+            covered.add(InternshipQuery.Criterion.OWNER);
+        } else {
+            List<Posting> postings = new ArrayList<>();
+            if (query.getStatuses() != null) {
+                postings.add(new Posting(union(internshipsByStatus, query.getStatuses()),
+                        EnumSet.of(InternshipQuery.Criterion.STATUS)));
+            }
+            if (query.getLevels() != null) {
+                postings.add(new Posting(union(internshipsByLevel, query.getLevels()),
+                        EnumSet.of(InternshipQuery.Criterion.LEVEL)));
+            }
+            if (query.getCompany() != null && query.getCompany().length() >= TrigramIndex.MIN_QUERY) {
+                postings.add(new Posting(internshipCompanies.find(query.getCompany()),
+                        EnumSet.of(InternshipQuery.Criterion.COMPANY)));
+            }
+            if (query.getOpenTo() != null) {
+                Set<Types.InternshipLevel> levels = query.getLevels() != null
+                        ? query.getLevels() : EnumSet.allOf(Types.InternshipLevel.class);
+                postings.add(new Posting(eligibility.find(query.getOpenTo(), levels, today),
+                        EnumSet.of(InternshipQuery.Criterion.OPEN_TO, InternshipQuery.Criterion.LEVEL)));
+            }
+            Posting smallest = null;
+            for (Posting posting : postings) {
+                if (smallest == null || posting.rows.size() < smallest.rows.size()) smallest = posting;
+            }
+            if (smallest != null) {
+                driver = smallest.rows;
+                covered.addAll(smallest.covers);
+                // status and level postings are sets, so they intersect by lookup
+                for (Posting posting : postings) {
+                    if (posting != smallest && posting.rows instanceof Set) {
+                        probes.add(posting.rows);
+                        covered.addAll(posting.covers);
+                    }
+                }
+            } else if (query.getOpenFrom() != null) {
+                driver = internshipDates.opensFrom(query.getOpenFrom());
+                covered.add(InternshipQuery.Criterion.OPEN_FROM);
+            } else if (query.getCloseBy() != null) {
+                driver = query.getCloseFrom() == null
+                        ? internshipDates.closesBy(query.getCloseBy())
+                        : internshipDates.closesBetween(query.getCloseFrom(), query.getCloseBy());
+                covered.add(InternshipQuery.Criterion.CLOSE_RANGE);
+            } else {
+                driver = internshipMap.values();
+            }
+        }
+
+        List<Internship> result = new ArrayList<>();
+        for (Internship internship : driver) {
+            if (!contains(probes, internship) || !query.matches(internship, covered)) continue;
+            result.add(internship);
+        }
+        Comparator<Internship> order = query.comparator();
+        if (order != null) result.sort(order);
+        return result;
+    }
+
+    /** Index rows answering some of a query's criteria */
+    private static final class Posting {
+        final Collection<Internship> rows;
+        final Set<InternshipQuery.Criterion> covers;
+
+        Posting(Collection<Internship> rows, Set<InternshipQuery.Criterion> covers) {
+            this.rows = rows;
+            this.covers = covers;
+        }
+    }
+
+    /** @return the internships filed under any of the keys, as one set */
+    private static <K> Set<Internship> union(Map<K, Set<Internship>> index, Set<K> keys) {
+        List<Set<Internship>> parts = new ArrayList<>();
+        int size = 0;
+        for (K key : keys) {
+            Set<Internship> part = index.get(key);
+            if (part == null || part.isEmpty()) continue;
+            parts.add(part);
+            size += part.size();
+        }
+        if (parts.size() == 1) return Collections.unmodifiableSet(parts.get(0));
+        // an internship has one status and one level, so the parts are disjoint
+        int total = size;
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Internship> iterator() { return parts.stream().flatMap(Set::stream).iterator(); }
+
+            @Override
+            public int size() { return total; }
+
+            @Override
+            public boolean contains(Object o) {
+                for (Set<Internship> part : parts) if (part.contains(o)) return true;
+                return false;
+            }
+        };
+    }
+
+    private static boolean contains(List<Collection<Internship>> probes, Internship internship) {
+        for (Collection<Internship> probe : probes) if (!probe.contains(internship)) return false;
+        return true;
+    }
+
+    private void indexInternship(Internship internship) {
+        internshipVersion++;
+        version.incrementAndGet();
+        internshipRecords = internshipRecords.put(internship.getInternshipID(), new InternshipRecord(internship));
+        internshipsByStatus.get(internship.getStatus()).add(internship);
+        internshipsByLevel.get(internship.getLevel()).add(internship);
+        internshipsByCompany.computeIfAbsent(internship.getCompanyName(), c -> new LinkedHashSet<>()).add(internship);
+        eligibility.add(internship);
+        internshipDates.add(internship);
+        internshipText.add(internship);
+        internshipCompanies.add(internship.getCompanyName(), internship);
+    }
+
+    private void unindexInternship(Internship internship) {
+        internshipVersion++;
+        eligibility.remove(internship);
+        internshipDates.remove(internship);
+        internshipText.remove(internship);
+        internshipCompanies.remove(internship.getCompanyName(), internship);
+        internshipsByStatus.get(internship.getStatus()).remove(internship);
+        internshipsByLevel.get(internship.getLevel()).remove(internship);
+        Set<Internship> company = internshipsByCompany.get(internship.getCompanyName());
+        if (company != null) {
+            company.remove(internship);
+            if (company.isEmpty()) internshipsByCompany.remove(internship.getCompanyName());
+        }
+    }
+
     /** Withdrawal request operations */
     
     @Override
-    public void addWithdrawal(WithdrawalRequest request) { withdrawalMap.put(request.getRequestID(), request); }
+    public void addWithdrawal(WithdrawalRequest request) {
+        // attach before the write lock: setStatus holds the request's lock, then takes the write lock
+        request.setObserver(withdrawalCounter);
+        indexLock.writeLock().lock();
+        try {
+            WithdrawalRequest replaced = withdrawalMap.put(request.getRequestID(), request);
+            if (replaced != null) countWithdrawal(replaced, -1); // its observer no longer counts it
+            countWithdrawal(request, 1);
+            version.incrementAndGet();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        markDirty(Types.EntityType.WITHDRAWAL, request.getRequestID());
+    }
+
+    private void countWithdrawal(WithdrawalRequest request, int delta) {
+        if (request.getStatus() != null) withdrawalCounts.get(request.getStatus()).addAndGet(delta);
+    }
+
+    @Override
+    public int countWithdrawals(Types.WithdrawalStatus status) { return read(withdrawalCounts.get(status)::get); }
 
     @Override
     public WithdrawalRequest findWithdrawal(String requestID) { return withdrawalMap.get(requestID); }
 
     @Override
     public List<WithdrawalRequest> getAllWithdrawals() { return new ArrayList<>(withdrawalMap.values()); }
+
+    @Override
+    public Collection<WithdrawalRequest> withdrawals() { return withdrawalView; }
+
+    /** Application operations */
+
+    @Override
+    public void addApplication(Application application) {
+        indexLock.writeLock().lock();
+        try {
+            Application replaced = applicationMap.put(application.getApplicationID(), application);
+            if (replaced != null) unindexApplication(replaced);
+            applicationsByStudent.computeIfAbsent(application.getStudent().getUserID(), s -> new ArrayList<>())
+                    .add(application);
+            applicationsByInternship.computeIfAbsent(application.getInternship().getInternshipID(), i -> new ArrayList<>())
+                    .add(application);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        markDirty(Types.EntityType.APPLICATION, application.getApplicationID());
+    }
+
+    @Override
+    public void removeApplication(String applicationID) {
+        indexLock.writeLock().lock();
+        try {
+            Application removed = applicationMap.remove(applicationID);
+            if (removed == null) return;
+            unindexApplication(removed);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        markDirty(Types.EntityType.APPLICATION, applicationID);
+    }
+
+    @Override
+    public Application findApplication(String applicationID) { return applicationMap.get(applicationID); }
+
+    @Override
+    public List<Application> getAllApplications() { return new ArrayList<>(applicationMap.values()); }
+
+    @Override
+    public Collection<Application> applications() { return applicationView; }
+
+    @Override
+    public List<Application> getApplicationsByStudent(String studentID) {
+        return read(() -> new ArrayList<>(applicationsByStudent.getOrDefault(studentID, Collections.emptyList())));
+    }
+
+    @Override
+    public List<Application> getApplicationsByInternship(String internshipID) {
+        return read(() -> new ArrayList<>(applicationsByInternship.getOrDefault(internshipID, Collections.emptyList())));
+    }
+
+    private void unindexApplication(Application application) {
+        removeFromIndex(applicationsByStudent, application.getStudent().getUserID(), application);
+        removeFromIndex(applicationsByInternship, application.getInternship().getInternshipID(), application);
+    }
+
+    private static <T> void removeFromIndex(Map<String, List<T>> index, String key, T value) {
+        List<T> values = index.get(key);
+        if (values == null) return;
+        values.remove(value);
+        if (values.isEmpty()) index.remove(key);
+    }
+
+    /** Change tracking */
+
+    @Override
+    public void markDirty(Types.EntityType type, String id) {
+        dirty.compute(type, (t, ids) -> { // atomic against takeDirty removing the set
+            if (ids == null) ids = ConcurrentHashMap.newKeySet();
+            ids.add(id);
+            return ids;
+        });
+        if (changeListener != null) changeListener.recordChanged(type, id);
+    }
+
+    @Override
+    public void markDirty(User user) {
+        Types.EntityType type = switch (user.getUserRole()) {
+            case STUDENT -> Types.EntityType.STUDENT;
+            case COMPANY_REPRESENTATIVE -> Types.EntityType.COMPANY_REP;
+            case CAREER_CENTER_STAFF -> Types.EntityType.CAREER_STAFF;
+        };
+        markDirty(type, user.getUserID());
+    }
+
+    @Override
+    public Set<Types.EntityType> getDirtyTypes() {
+        Set<Types.EntityType> types = EnumSet.noneOf(Types.EntityType.class);
+        for (Map.Entry<Types.EntityType, Set<String>> e : dirty.entrySet()) {
+            if (!e.getValue().isEmpty()) types.add(e.getKey());
+        }
+        return types;
+    }
+
+    @Override
+    public Set<String> getDirtyIDs(Types.EntityType type) {
+        return new HashSet<>(dirty.getOrDefault(type, Collections.emptySet()));
+    }
+
+    @Override
+    public void clearDirty(Types.EntityType type) { dirty.remove(type); }
+
+    @Override
+    public Set<String> takeDirty(Types.EntityType type) {
+        Set<String> ids = dirty.remove(type);
+        return ids == null ? Collections.emptySet() : ids;
+    }
+
+    @Override
+    public void clearAllDirty() { dirty.clear(); }
+
+    @Override
+    public void setChangeListener(IChangeListener listener) { this.changeListener = listener; }
 }
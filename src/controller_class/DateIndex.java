@@ -0,0 +1,93 @@
+package controller_class;
+
+import entity_class.*;
+import java.util.*;
+
+/**
+ * Internships ordered by the first and by the last day of their application
+ * window, so date-range questions cost a tree descent plus the size of the
+ * answer. Days are epoch days as kept by {@link Internship}; internships
+ * without both days are not indexed.
+ */
+class DateIndex {
+    private final TreeMap<Integer, Set<Internship>> byOpen = new TreeMap<>();
+    private final TreeMap<Integer, Set<Internship>> byClose = new TreeMap<>();
+
+    /** Add an internship; call with its current days */
+    void add(Internship internship) {
+        if (!internship.hasWindow()) return;
+        byOpen.computeIfAbsent(internship.getOpenDay(), d -> new LinkedHashSet<>()).add(internship);
+        byClose.computeIfAbsent(internship.getCloseDay(), d -> new LinkedHashSet<>()).add(internship);
+    }
+
+    /** Remove an internship; call before its days change */
+    void remove(Internship internship) {
+        if (!internship.hasWindow()) return;
+        removeFrom(byOpen, internship.getOpenDay(), internship);
+        removeFrom(byClose, internship.getCloseDay(), internship);
+    }
+
+    /** @return internships opening on or after a day */
+    List<Internship> opensFrom(int from) {
+        return flatten(byOpen.tailMap(from, true));
+    }
+
+    /** @return internships closing on or before a day */
+    List<Internship> closesBy(int to) {
+        return flatten(byClose.headMap(to, true));
+    }
+
+    /** @return internships closing in [from, to] */
+    List<Internship> closesBetween(int from, int to) {
+        return from > to ? List.of() : flatten(byClose.subMap(from, true, to, true));
+    }
+
+    /** @return internships opening in (from, to] */
+    List<Internship> opensIn(int from, int to) {
+        return from >= to ? List.of() : flatten(byOpen.subMap(from, false, to, true));
+    }
+
+    /** @return internships closing in (from, to] */
+    List<Internship> closesIn(int from, int to) {
+        return from >= to ? List.of() : flatten(byClose.subMap(from, false, to, true));
+    }
+
+    /**
+     * Internships whose window contains a day, as in {@link Internship#isOpen()}:
+     * opened on or before it and closing after it. Only windows still open
+     * on that day are visited, which for today excludes the closed history.
+     */
+    List<Internship> openAt(int day) {
+        List<Internship> result = new ArrayList<>();
+        for (Set<Internship> set : byClose.tailMap(day, false).values()) {
+            for (Internship i : set) if (i.getOpenDay() <= day) result.add(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return the last day up to which {@link #openAt} gives the same
+     * answer as on {@code day}: the day before the next window opens or closes
+     */
+    long stableUntil(int day) {
+        Integer open = byOpen.higherKey(day);
+        Integer close = byClose.higherKey(day);
+        long next = Long.MAX_VALUE;
+        if (open != null) next = open;
+        if (close != null) next = Math.min(next, close);
+        return next == Long.MAX_VALUE ? next : next - 1;
+    }
+
+    private static List<Internship> flatten(Map<Integer, Set<Internship>> range) {
+        List<Internship> result = new ArrayList<>();
+        for (Set<Internship> set : range.values()) result.addAll(set);
+        return result;
+    }
+
+    private static void removeFrom(Map<Integer, Set<Internship>> map, int key, Internship internship) {
+        Set<Internship> set = map.get(key);
+        if (set == null) return;
+        set.remove(internship);
+        if (set.isEmpty()) map.remove(key);
+    }
+}
@@ -0,0 +1,120 @@
+package controller_class;
+
+import entity_class.*;
+import java.util.*;
+
+/**
+ * Index of the internships students can currently be offered: approved,
+ * visible and with a free slot. Each listed internship gets a small int
+ * slot, and every (major, level) pair keeps a bitset of the slots of the
+ * listed internships at that level preferring that major.
+ *
+ * A further bitset holds the slots whose application window is open on the
+ * day of the last lookup. A lookup on a later day advances it by sweeping the
+ * windows that opened or closed in between, read from a {@link DateIndex}
+ * of the listed internships. A student's listing is then the OR of the
+ * bitsets of the levels their year allows, ANDed with the open bitset.
+ * Since a lookup may advance that bitset, the methods are synchronized.
+ */
+class EligibilityIndex {
+    private static final Types.Major[] MAJOR_VALUES = Types.Major.values();
+    private static final int MAJORS = MAJOR_VALUES.length;
+    private static final int LEVELS = Types.InternshipLevel.values().length;
+
+    private final BitSet[] postings = new BitSet[MAJORS * LEVELS];
+    private final Map<Internship, Integer> slotOf = new IdentityHashMap<>();
+    private final List<Internship> bySlot = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final DateIndex windows = new DateIndex();
+    private final BitSet openNow = new BitSet();
+    private int asOf = Integer.MIN_VALUE; // epoch day openNow describes
+
+    EligibilityIndex() {
+        for (int k = 0; k < postings.length; k++) postings[k] = new BitSet();
+    }
+
+    /** Add an internship if it can be listed; call with its current field values */
+    synchronized void add(Internship internship) {
+        if (!isListable(internship) || slotOf.containsKey(internship)) return;
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = bySlot.size();
+            bySlot.add(internship);
+        } else {
+            slot = freeSlots.pop();
+            bySlot.set(slot, internship);
+        }
+        slotOf.put(internship, slot);
+        for (Types.Major major : MAJOR_VALUES) {
+            if (internship.prefersMajor(major)) posting(major, internship.getLevel()).set(slot);
+        }
+        windows.add(internship);
+        if (isOpenAt(internship, asOf)) openNow.set(slot);
+    }
+
+    /** Remove an internship; call before any indexed field changes */
+    synchronized void remove(Internship internship) {
+        Integer slot = slotOf.remove(internship);
+        if (slot == null) return;
+        for (Types.Major major : MAJOR_VALUES) {
+            if (internship.prefersMajor(major)) posting(major, internship.getLevel()).clear(slot);
+        }
+        windows.remove(internship);
+        openNow.clear(slot);
+        bySlot.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    /**
+     * Listed internships preferring a major at any of the given levels whose
+     * application window contains a day.
+     */
+    synchronized List<Internship> find(Types.Major major, Set<Types.InternshipLevel> levels, int today) {
+        advanceTo(today);
+        BitSet hits = new BitSet();
+        for (Types.InternshipLevel level : levels) hits.or(posting(major, level));
+        hits.and(openNow);
+        List<Internship> result = new ArrayList<>(hits.cardinality());
+        for (int slot = hits.nextSetBit(0); slot >= 0; slot = hits.nextSetBit(slot + 1)) {
+            result.add(bySlot.get(slot));
+        }
+        return result;
+    }
+
+    /** @return the last day up to which a lookup on {@code today} stays correct, barring changes */
+    synchronized long stableUntil(int today) {
+        return windows.stableUntil(today);
+    }
+
+    /** Bring openNow from asOf to a new day */
+    private void advanceTo(int today) {
+        if (today == asOf) return;
+        if (today < asOf) {
+            // the clock went back: start over
+            openNow.clear();
+            for (Internship internship : windows.openAt(today)) openNow.set(slotOf.get(internship));
+        } else {
+            for (Internship internship : windows.closesIn(asOf, today)) openNow.clear(slotOf.get(internship));
+            for (Internship internship : windows.opensIn(asOf, today)) {
+                if (isOpenAt(internship, today)) openNow.set(slotOf.get(internship));
+            }
+        }
+        asOf = today;
+    }
+
+    private static boolean isOpenAt(Internship internship, int day) {
+        return internship.getOpenDay() <= day && internship.getCloseDay() > day;
+    }
+
+    private BitSet posting(Types.Major major, Types.InternshipLevel level) {
+        return postings[major.ordinal() * LEVELS + level.ordinal()];
+    }
+
+    /** The date-independent part of {@link Internship#isOpen()} */
+    private static boolean isListable(Internship internship) {
+        return internship.getStatus() == Types.InternshipStatus.APPROVED
+                && internship.isVisible()
+                && internship.getConfirmedSlots() < internship.getNumberOfSlots()
+                && internship.hasWindow();
+    }
+}
@@ -16,9 +16,13 @@ public interface ICareerStaffController {
     void rejectInternship(String internshipID);
     List<WithdrawalRequest> getPendingWithdrawals();
     void processWithdrawal(String requestID, boolean approve);
+    List<Internship> searchInternships(String keywords);
     List<Internship> getFilteredInternships(List<Types.Major> majors,
                                             String company,
                                             Types.InternshipLevel level,
                                             Date open, Date close,
                                             Types.InternshipStatus status);
+    List<Internship> findInternships(InternshipQuery query);
+    /** @return a fixed view of the repository for statistics and reports */
+    RepoSnapshot getSnapshot();
 }
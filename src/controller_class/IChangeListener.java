@@ -0,0 +1,14 @@
+package controller_class;
+
+import entity_class.Types;
+
+/** Callback notified by the repository whenever a record is changed. */
+@FunctionalInterface
+public interface IChangeListener {
+    /**
+     * Called after a record was added, modified or removed.
+     * @param type type of the changed record
+     * @param id ID of the changed record
+     */
+    void recordChanged(Types.EntityType type, String id);
+}
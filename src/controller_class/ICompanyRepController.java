@@ -10,6 +10,7 @@ public interface ICompanyRepController {
                                 Types.InternshipLevel level, List<Types.Major> majors,
                                 Date openDate, Date closeDate, int slots);
     List<Internship> viewInternships(CompanyRep rep);
+    List<Internship> viewInternships(CompanyRep rep, InternshipQuery query);
     List<Internship> viewInternshipByStatus(CompanyRep rep, Types.InternshipStatus status);
     void updateInternship(CompanyRep rep, String internshipID, String title,
                           String description, Types.InternshipLevel level,
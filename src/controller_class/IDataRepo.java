@@ -1,21 +1,100 @@
 package controller_class;
 
 import entity_class.*;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
-/** Abstraction for the data repository. */
+/**
+ * Abstraction for the data repository.
+ * The getAll methods return a copy the caller owns. The users(), internships(),
+ * withdrawals() and applications() views copy nothing: they are read-only and
+ * reflect later changes, and iterating one while other sessions change the
+ * repository is safe but may or may not see those changes.
+ * Every method may be called from any thread.
+ */
 public interface IDataRepo {
+    /**
+     * Lock serializing multi-step changes to one entity across sessions,
+     * such as checking a student's application limit and then applying.
+     * Hold at most one of these at a time.
+     * @param type the entity type
+     * @param id the entity ID
+     * @return the lock for that entity, shared with a few others
+     */
+    Lock lockFor(Types.EntityType type, String id);
+
     void addUser(User user);
     void removeUser(String userID);
     User findUser(String userID);
     List<User> getAllUsers();
+    Collection<User> users();
+    /** Users of one role; findUser still resolves any ID. */
+    Student findStudent(String userID);
+    Collection<Student> students();
+    Collection<CompanyRep> companyReps();
+    Collection<CareerStaff> careerStaff();
+    /** Live counts, kept current on every change rather than by scanning. */
+    int countApprovedCompanyReps();
+    /** @return the first registered rep of a company, or null if it has none */
+    CompanyRep findCompanyRep(String companyName);
+    /** @return every rep of a company, in registration order */
+    List<CompanyRep> getCompanyReps(String companyName);
 
     void addInternship(Internship internship);
     void removeInternship(String internshipID);
     Internship findInternship(String internshipID);
     List<Internship> getAllInternships();
+    Collection<Internship> internships();
+    /** Read-only copies of the internship indexes, taken when called. */
+    Collection<Internship> internshipsByStatus(Types.InternshipStatus status);
+    int countInternships(Types.InternshipStatus status);
+    Collection<Internship> internshipsByLevel(Types.InternshipLevel level);
+    Collection<Internship> internshipsByCompany(String companyName);
+    /** @return approved, visible internships with free slots and open now, preferring the major at one of the levels */
+    List<Internship> findOpenInternships(Types.Major major, Set<Types.InternshipLevel> levels);
+    /** Date-range lookups on the application window; internships without dates never match. */
+    List<Internship> findInternshipsOpeningFrom(Date from);
+    List<Internship> findInternshipsClosingBy(Date to);
+    List<Internship> findInternshipsOpenAt(Date time);
+    /** Keyword search over title, description and company name ("word" or "prefix*"), best match first. */
+    List<Internship> searchInternships(String query);
+    /** Case-insensitive substring lookups; indexed from three characters, scanned below that. */
+    List<Internship> findInternshipsByCompanySubstring(String fragment);
+    List<CompanyRep> findCompanyRepsByNameSubstring(String fragment);
+    /** Runs a listing query, driving it from the most selective index that applies. */
+    List<Internship> findInternships(InternshipQuery query);
+    CacheStats getQueryCacheStats();
+    /** @return the repository at its current version, immutable and safe to read without locks */
+    RepoSnapshot snapshot();
 
     void addWithdrawal(WithdrawalRequest request);
     WithdrawalRequest findWithdrawal(String requestID);
     List<WithdrawalRequest> getAllWithdrawals();
+    Collection<WithdrawalRequest> withdrawals();
+    int countWithdrawals(Types.WithdrawalStatus status);
+
+    /** Applications are stored by ID and indexed by student and internship. */
+    void addApplication(Application application);
+    void removeApplication(String applicationID);
+    Application findApplication(String applicationID);
+    List<Application> getAllApplications();
+    Collection<Application> applications();
+    List<Application> getApplicationsByStudent(String studentID);
+    List<Application> getApplicationsByInternship(String internshipID);
+
+    /** Change tracking: records entities modified since the last save. */
+    void markDirty(Types.EntityType type, String id);
+    void markDirty(User user);
+    Set<Types.EntityType> getDirtyTypes();
+    Set<String> getDirtyIDs(Types.EntityType type);
+    void clearDirty(Types.EntityType type);
+    /** Removes and returns the IDs marked for a type in one step, so no mark made meanwhile is lost. */
+    Set<String> takeDirty(Types.EntityType type);
+    void clearAllDirty();
+
+    /** Registers a listener told about every change marked from now on (null to remove). */
+    void setChangeListener(IChangeListener listener);
 }
@@ -6,6 +6,8 @@ import java.util.List;
 /** Student controller abstraction. */
 public interface IStudentController {
     List<Internship> getEligibleInternships(Student student);
+    List<Internship> searchEligibleInternships(Student student, String keywords);
+    List<Internship> findEligibleInternships(Student student, InternshipQuery query);
     Application applyInternship(Student student, String internshipID);
     List<Application> viewApplications(Student student);
     void acceptInternship(Student student, String applicationID);
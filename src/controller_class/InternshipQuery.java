@@ -0,0 +1,196 @@
+package controller_class;
+
+import entity_class.*;
+import java.util.*;
+
+/**
+ * Criteria for an internship listing, run by
+ * {@link IDataRepo#findInternships(InternshipQuery)}. Criteria left unset
+ * match every internship; the ones that are set must all hold. Setters
+ * return the query so they can be chained, and treat a null or empty
+ * argument as "any".
+ */
+public class InternshipQuery {
+    /** Order of the results */
+    public enum Sort {
+        /** Keyword rank when keywords are given, otherwise unspecified */
+        NONE,
+        /** Title, ignoring case */
+        TITLE,
+        OPEN_DATE,
+        CLOSE_DATE
+    }
+
+    /** The individual criteria, so the planner can skip the ones its indexes already guarantee */
+    enum Criterion { OWNER, KEYWORDS, OPEN_TO, STATUS, LEVEL, COMPANY, MAJORS, OPEN_FROM, CLOSE_RANGE, VISIBLE }
+
+    private int majors; // mask of majors, 0 for any
+    private Set<Types.InternshipLevel> levels;
+    private Set<Types.InternshipStatus> statuses;
+    private CompanyRep owner;
+    private String company;
+    private String keywords;
+    private Types.Major openTo;
+    private Integer openFrom; // epoch days
+    private Integer closeFrom;
+    private Integer closeBy;
+    private Boolean visible;
+    private Sort sort = Sort.NONE;
+
+    /** Internships preferring at least one of these majors */
+    public InternshipQuery majors(Collection<Types.Major> majors) {
+        this.majors = majors == null ? 0 : Internship.majorMask(majors);
+        return this;
+    }
+
+    /** Internships at one of these levels; repeated calls narrow the set */
+    public InternshipQuery levels(Collection<Types.InternshipLevel> levels) {
+        if (levels == null || levels.isEmpty()) return this;
+        if (this.levels == null) this.levels = EnumSet.copyOf(levels);
+        else this.levels.retainAll(levels);
+        return this;
+    }
+
+    public InternshipQuery level(Types.InternshipLevel level) {
+        return level == null ? this : levels(EnumSet.of(level));
+    }
+
+    /** Internships in one of these statuses; repeated calls narrow the set */
+    public InternshipQuery statuses(Collection<Types.InternshipStatus> statuses) {
+        if (statuses == null || statuses.isEmpty()) return this;
+        if (this.statuses == null) this.statuses = EnumSet.copyOf(statuses);
+        else this.statuses.retainAll(statuses);
+        return this;
+    }
+
+    public InternshipQuery status(Types.InternshipStatus status) {
+        return status == null ? this : statuses(EnumSet.of(status));
+    }
+
+    /** Internships created by this representative */
+    public InternshipQuery createdBy(CompanyRep rep) {
+        this.owner = rep;
+        return this;
+    }
+
+    /** Internships whose company name contains this text, ignoring case */
+    public InternshipQuery companyContains(String company) {
+        this.company = company == null || company.isEmpty() ? null : company;
+        return this;
+    }
+
+    /** Internships matching a keyword search; results come best match first unless sorted */
+    public InternshipQuery keywords(String keywords) {
+        this.keywords = keywords == null || keywords.isBlank() ? null : keywords;
+        return this;
+    }
+
+    /** Internships a student of this major could apply to right now (approved, visible, open, with a free slot) */
+    public InternshipQuery openTo(Types.Major major) {
+        this.openTo = major;
+        return this;
+    }
+
+    /** Internships opening on or after a date */
+    public InternshipQuery opensFrom(Date date) {
+        this.openFrom = day(date);
+        return this;
+    }
+
+    /** Internships closing on or before a date */
+    public InternshipQuery closesBy(Date date) {
+        this.closeBy = day(date);
+        return this;
+    }
+
+    /** Internships closing exactly at a date */
+    public InternshipQuery closesOn(Date date) {
+        this.closeFrom = day(date);
+        this.closeBy = closeFrom;
+        return this;
+    }
+
+    private static Integer day(Date date) {
+        return date == null ? null : AppClock.toEpochDay(date);
+    }
+
+    public InternshipQuery visible(Boolean visible) {
+        this.visible = visible;
+        return this;
+    }
+
+    public InternshipQuery sortBy(Sort sort) {
+        this.sort = sort == null ? Sort.NONE : sort;
+        return this;
+    }
+
+    Set<Types.InternshipLevel> getLevels() { return levels; }
+    Set<Types.InternshipStatus> getStatuses() { return statuses; }
+    CompanyRep getOwner() { return owner; }
+    String getCompany() { return company; }
+    String getKeywords() { return keywords; }
+    Types.Major getOpenTo() { return openTo; }
+    Integer getOpenFrom() { return openFrom; }
+    Integer getCloseFrom() { return closeFrom; }
+    Integer getCloseBy() { return closeBy; }
+    Sort getSort() { return sort; }
+
+    /**
+     * @return the criteria in a normalized, immutable form, equal for any two
+     * queries that always give the same result
+     */
+    List<Object> cacheKey() {
+        String folded = company == null ? null : TrigramIndex.fold(company);
+        String words = keywords == null ? null : String.join(" ", keywords.trim().toLowerCase(Locale.ROOT).split("\\s+"));
+        return Collections.unmodifiableList(Arrays.asList(
+                majors, copy(levels), copy(statuses), owner == null ? null : owner.getUserID(),
+                folded, words, openTo, openFrom, closeFrom, closeBy, visible, sort));
+    }
+
+    private static <E extends Enum<E>> Set<E> copy(Set<E> set) {
+        return set == null ? null : EnumSet.copyOf(set);
+    }
+
+    /** @return true if the internship meets every criterion */
+    public boolean matches(Internship internship) {
+        return matches(internship, EnumSet.noneOf(Criterion.class));
+    }
+
+    /** @return true if the internship meets every criterion not in {@code covered} */
+    boolean matches(Internship i, Set<Criterion> covered) {
+        if (owner != null && !covered.contains(Criterion.OWNER) && i.getCompanyRepresentative() != owner) return false;
+        if (statuses != null && !covered.contains(Criterion.STATUS) && !statuses.contains(i.getStatus())) return false;
+        if (levels != null && !covered.contains(Criterion.LEVEL) && !levels.contains(i.getLevel())) return false;
+        if (visible != null && !covered.contains(Criterion.VISIBLE) && i.isVisible() != visible) return false;
+        if (majors != 0 && !covered.contains(Criterion.MAJORS) && !i.prefersAnyMajor(majors)) return false;
+        if (openFrom != null && !covered.contains(Criterion.OPEN_FROM)
+                && (i.getOpenDay() == AppClock.NO_DATE || i.getOpenDay() < openFrom)) return false;
+        if ((closeFrom != null || closeBy != null) && !covered.contains(Criterion.CLOSE_RANGE)) {
+            if (i.getCloseDay() == AppClock.NO_DATE) return false;
+            if (closeFrom != null && i.getCloseDay() < closeFrom) return false;
+            if (closeBy != null && i.getCloseDay() > closeBy) return false;
+        }
+        if (company != null && !covered.contains(Criterion.COMPANY)
+                && (i.getCompanyName() == null
+                    || !TrigramIndex.fold(i.getCompanyName()).contains(TrigramIndex.fold(company)))) return false;
+        if (openTo != null && !covered.contains(Criterion.OPEN_TO)
+                && (!i.prefersMajor(openTo) || !i.isOpen())) return false;
+        // keywords have no cheap per-row test, so the planner always drives a keyword query from the search
+        return true;
+    }
+
+    private static int undatedLast(int day) {
+        return day == AppClock.NO_DATE ? Integer.MAX_VALUE : day;
+    }
+
+    /** @return the result order, or null to keep the planner's order */
+    Comparator<Internship> comparator() {
+        Comparator<Internship> byID = Comparator.comparing(Internship::getInternshipID);
+        return switch (sort) {
+            case TITLE -> Comparator.comparing(Internship::getTitle, String.CASE_INSENSITIVE_ORDER).thenComparing(byID);
+            case OPEN_DATE -> Comparator.comparingInt((Internship i) -> undatedLast(i.getOpenDay())).thenComparing(byID);
+            case CLOSE_DATE -> Comparator.comparingInt((Internship i) -> undatedLast(i.getCloseDay())).thenComparing(byID);
+            case NONE -> null;
+        };
+    }
+}
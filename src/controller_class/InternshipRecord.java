@@ -0,0 +1,49 @@
+package controller_class;
+
+import entity_class.*;
+import java.util.Date;
+
+/**
+ * Immutable copy of an internship's fields at one repository version. The
+ * repository replaces an internship's record whenever the internship
+ * changes, so a record handed out never changes under its reader.
+ */
+public final class InternshipRecord {
+    private final String internshipID;
+    private final String title;
+    private final String companyName;
+    private final Types.InternshipStatus status;
+    private final Types.InternshipLevel level;
+    private final int preferredMajors;
+    private final int openDay;
+    private final int closeDay;
+    private final int confirmedSlots;
+    private final int numberOfSlots;
+    private final boolean visible;
+
+    InternshipRecord(Internship internship) {
+        this.internshipID = internship.getInternshipID();
+        this.title = internship.getTitle();
+        this.companyName = internship.getCompanyName();
+        this.status = internship.getStatus();
+        this.level = internship.getLevel();
+        this.preferredMajors = internship.getPreferredMajorMask();
+        this.openDay = internship.getOpenDay();
+        this.closeDay = internship.getCloseDay();
+        this.confirmedSlots = internship.getConfirmedSlots();
+        this.numberOfSlots = internship.getNumberOfSlots();
+        this.visible = internship.isVisible();
+    }
+
+    public String getInternshipID() { return internshipID; }
+    public String getTitle() { return title; }
+    public String getCompanyName() { return companyName; }
+    public Types.InternshipStatus getStatus() { return status; }
+    public Types.InternshipLevel getLevel() { return level; }
+    public boolean prefersMajor(Types.Major major) { return (preferredMajors & Internship.majorBit(major)) != 0; }
+    public Date getOpenDate() { return AppClock.toDate(openDay); }
+    public Date getCloseDate() { return AppClock.toDate(closeDay); }
+    public int getConfirmedSlots() { return confirmedSlots; }
+    public int getNumberOfSlots() { return numberOfSlots; }
+    public boolean isVisible() { return visible; }
+}
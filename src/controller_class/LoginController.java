@@ -74,6 +74,7 @@ public class LoginController implements ILoginController {
             if (fileHandler != null) {
                 fileHandler.updateUserPassword(user.getUserID(), newPassword);
             }
+            repo.markDirty(user);
             return true;
         }
         return false;
@@ -0,0 +1,139 @@
+package controller_class;
+
+import java.util.*;
+
+/**
+ * Immutable sorted map whose versions share structure. {@link #put} and
+ * {@link #remove} return a new map and copy only the nodes on the path to
+ * the key, so keeping an old version alive costs nothing and handing one
+ * out is a single reference. A treap whose priorities come from the key
+ * hash, which keeps it balanced in expectation whatever the key order.
+ */
+final class PersistentSortedMap<K extends Comparable<K>, V> {
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final int priority;
+        final Node<K, V> left;
+        final Node<K, V> right;
+        final int size;
+
+        Node(K key, V value, int priority, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + sizeOf(left) + sizeOf(right);
+        }
+
+        Node<K, V> withChildren(Node<K, V> l, Node<K, V> r) { return new Node<>(key, value, priority, l, r); }
+    }
+
+    private static final PersistentSortedMap<?, ?> EMPTY = new PersistentSortedMap<>(null);
+
+    private final Node<K, V> root;
+
+    private PersistentSortedMap(Node<K, V> root) { this.root = root; }
+
+    @SuppressWarnings("unchecked")
+    static <K extends Comparable<K>, V> PersistentSortedMap<K, V> empty() {
+        return (PersistentSortedMap<K, V>) EMPTY;
+    }
+
+    int size() { return sizeOf(root); }
+
+    V get(K key) {
+        Node<K, V> n = root;
+        while (n != null) {
+            int c = key.compareTo(n.key);
+            if (c == 0) return n.value;
+            n = c < 0 ? n.left : n.right;
+        }
+        return null;
+    }
+
+    /** @return a map with the key mapped to the value; this map is unchanged */
+    PersistentSortedMap<K, V> put(K key, V value) {
+        return new PersistentSortedMap<>(insert(root, key, value, priorityOf(key)));
+    }
+
+    /** @return a map without the key; this map if the key is absent */
+    PersistentSortedMap<K, V> remove(K key) {
+        Node<K, V> r = delete(root, key);
+        return r == root ? this : new PersistentSortedMap<>(r);
+    }
+
+    /** @return the values in key order, as a read-only view of this version */
+    Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() { return new InOrder<>(root); }
+
+            @Override
+            public int size() { return sizeOf(root); }
+        };
+    }
+
+    private static <K extends Comparable<K>, V> Node<K, V> insert(Node<K, V> n, K key, V value, int priority) {
+        if (n == null) return new Node<>(key, value, priority, null, null);
+        int c = key.compareTo(n.key);
+        if (c == 0) return new Node<>(key, value, n.priority, n.left, n.right);
+        if (c < 0) {
+            Node<K, V> l = insert(n.left, key, value, priority);
+            if (l.priority <= n.priority) return n.withChildren(l, n.right);
+            return l.withChildren(l.left, n.withChildren(l.right, n.right)); // rotate right
+        }
+        Node<K, V> r = insert(n.right, key, value, priority);
+        if (r.priority <= n.priority) return n.withChildren(n.left, r);
+        return r.withChildren(n.withChildren(n.left, r.left), r.right); // rotate left
+    }
+
+    private static <K extends Comparable<K>, V> Node<K, V> delete(Node<K, V> n, K key) {
+        if (n == null) return null;
+        int c = key.compareTo(n.key);
+        if (c == 0) return merge(n.left, n.right);
+        if (c < 0) {
+            Node<K, V> l = delete(n.left, key);
+            return l == n.left ? n : n.withChildren(l, n.right);
+        }
+        Node<K, V> r = delete(n.right, key);
+        return r == n.right ? n : n.withChildren(n.left, r);
+    }
+
+    /** Join two treaps whose keys are all less in {@code a} than in {@code b} */
+    private static <K, V> Node<K, V> merge(Node<K, V> a, Node<K, V> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) return a.withChildren(a.left, merge(a.right, b));
+        return b.withChildren(merge(a, b.left), b.right);
+    }
+
+    private static int sizeOf(Node<?, ?> n) { return n == null ? 0 : n.size; }
+
+    private static int priorityOf(Object key) {
+        int h = key.hashCode() * 0x9E3779B9; // spread similar IDs apart
+        return h ^ (h >>> 16);
+    }
+
+    private static final class InOrder<K, V> implements Iterator<V> {
+        private final Deque<Node<K, V>> path = new ArrayDeque<>();
+
+        InOrder(Node<K, V> root) { descend(root); }
+
+        private void descend(Node<K, V> n) {
+            for (; n != null; n = n.left) path.push(n);
+        }
+
+        @Override
+        public boolean hasNext() { return !path.isEmpty(); }
+
+        @Override
+        public V next() {
+            if (path.isEmpty()) throw new NoSuchElementException();
+            Node<K, V> n = path.pop();
+            descend(n.right);
+            return n.value;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package controller_class;
+
+import entity_class.*;
+import java.util.*;
+
+/**
+ * Bounded LRU cache of internship listing results, keyed by a query's
+ * normalized criteria. Each entry records the repository's internship
+ * version when it was computed and is dropped on lookup once that version
+ * has moved on. Results that depend on the current time also carry the
+ * range of days over which they stay correct. Lookups reorder the entries,
+ * so every method is synchronized, even for callers that only read.
+ */
+class QueryCache {
+    private static final class Entry {
+        final List<Internship> result;
+        final long version;
+        final long from;
+        final long until;
+
+        Entry(List<Internship> result, long version, long from, long until) {
+            this.result = result;
+            this.version = version;
+            this.from = from;
+            this.until = until;
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<List<Object>, Entry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    QueryCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+                if (size() <= QueryCache.this.capacity) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /** @return the cached result if it is still current at this version and day, else null */
+    synchronized List<Internship> get(List<Object> key, long version, long today) {
+        Entry entry = entries.get(key);
+        if (entry != null && (entry.version != version || today < entry.from || today > entry.until)) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.result;
+    }
+
+    /** Store a result computed at a version, correct for days in [from, until] */
+    synchronized void put(List<Object> key, List<Internship> result, long version, long from, long until) {
+        entries.put(key, new Entry(result, version, from, until));
+    }
+
+    synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, entries.size(), capacity);
+    }
+}
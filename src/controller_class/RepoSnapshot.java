@@ -0,0 +1,73 @@
+package controller_class;
+
+import entity_class.*;
+import java.util.*;
+
+/**
+ * Read-only view of the repository at one version, from
+ * {@link IDataRepo#snapshot()}: the internships as immutable records, in ID
+ * order, and the user, internship and withdrawal counts. Nothing in it
+ * changes after it is taken, so a long report can read it without locks
+ * while other sessions keep changing the repository. The records are one
+ * version of the repository's persistent record map, shared rather than
+ * copied, so taking a snapshot costs the same at any size.
+ */
+public final class RepoSnapshot {
+    private final long version;
+    private final PersistentSortedMap<String, InternshipRecord> internships;
+    private final Map<Types.InternshipStatus, Integer> internshipCounts;
+    private final Map<Types.WithdrawalStatus, Integer> withdrawalCounts;
+    private final int students;
+    private final int companyReps;
+    private final int approvedCompanyReps;
+    private final int careerStaff;
+    private final int users;
+
+    RepoSnapshot(long version, PersistentSortedMap<String, InternshipRecord> internships,
+                 Map<Types.InternshipStatus, Integer> internshipCounts,
+                 Map<Types.WithdrawalStatus, Integer> withdrawalCounts,
+                 int students, int companyReps, int approvedCompanyReps, int careerStaff, int users) {
+        this.version = version;
+        this.internships = internships;
+        this.internshipCounts = Collections.unmodifiableMap(new EnumMap<>(internshipCounts));
+        this.withdrawalCounts = Collections.unmodifiableMap(new EnumMap<>(withdrawalCounts));
+        this.students = students;
+        this.companyReps = companyReps;
+        this.approvedCompanyReps = approvedCompanyReps;
+        this.careerStaff = careerStaff;
+        this.users = users;
+    }
+
+    /** @return the repository version this snapshot shows; equal versions mean equal contents */
+    public long getVersion() { return version; }
+
+    /** @return every internship, in ID order */
+    public Collection<InternshipRecord> getInternships() { return internships.values(); }
+
+    /**
+     * Internships matching every filter given
+     * @param major preferred major, or null for any
+     * @param level level, or null for any
+     * @param status status, or null for any
+     * @return the matching internships, in ID order
+     */
+    public List<InternshipRecord> findInternships(Types.Major major, Types.InternshipLevel level,
+                                                  Types.InternshipStatus status) {
+        List<InternshipRecord> result = new ArrayList<>();
+        for (InternshipRecord i : internships.values()) {
+            if (major != null && !i.prefersMajor(major)) continue;
+            if (level != null && i.getLevel() != level) continue;
+            if (status != null && i.getStatus() != status) continue;
+            result.add(i);
+        }
+        return result;
+    }
+
+    public int countInternships(Types.InternshipStatus status) { return internshipCounts.get(status); }
+    public int countWithdrawals(Types.WithdrawalStatus status) { return withdrawalCounts.get(status); }
+    public int getStudentCount() { return students; }
+    public int getCompanyRepCount() { return companyReps; }
+    public int getApprovedCompanyRepCount() { return approvedCompanyReps; }
+    public int getCareerStaffCount() { return careerStaff; }
+    public int getUserCount() { return users; }
+}
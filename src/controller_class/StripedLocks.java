@@ -0,0 +1,28 @@
+package controller_class;
+
+import entity_class.Types;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks shared by all entities: each (type, ID) pair hashes
+ * to one stripe, so two sessions working on the same entity serialize while
+ * sessions on different entities rarely contend. Two entities may share a
+ * stripe, so a caller must not hold one stripe while taking another.
+ */
+class StripedLocks {
+    private final ReentrantLock[] stripes;
+
+    /** @param count number of stripes, rounded up to a power of two */
+    StripedLocks(int count) {
+        int size = Integer.highestOneBit(Math.max(1, count - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int k = 0; k < size; k++) stripes[k] = new ReentrantLock();
+    }
+
+    Lock get(Types.EntityType type, String id) {
+        int h = 31 * type.ordinal() + id.hashCode();
+        h ^= h >>> 16; // spread high bits into the mask
+        return stripes[h & (stripes.length - 1)];
+    }
+}
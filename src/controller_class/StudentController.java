@@ -2,7 +2,7 @@ package controller_class;
 
 import entity_class.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.Lock;
 
 /** Handles student actions; depends on IDataRepo; implements IStudentController. */
 public class StudentController implements IStudentController {
@@ -16,9 +16,23 @@ public class StudentController implements IStudentController {
      visibility setting */
     @Override
     public List<Internship> getEligibleInternships(Student student) {
-        return repo.getAllInternships().stream()
-                .filter(i -> i.isEligibleForStudent(student))
-                .collect(Collectors.toList());
+        return findEligibleInternships(student, new InternshipQuery());
+    }
+
+    /** Keyword search restricted to the student's eligible internships, best match first */
+    @Override
+    public List<Internship> searchEligibleInternships(Student student, String keywords) {
+        return findEligibleInternships(student, new InternshipQuery().keywords(keywords));
+    }
+
+    /** The student's eligible internships narrowed by a listing query */
+    @Override
+    public List<Internship> findEligibleInternships(Student student, InternshipQuery query) {
+        Set<Types.InternshipLevel> levels = EnumSet.noneOf(Types.InternshipLevel.class);
+        for (Types.InternshipLevel level : Types.InternshipLevel.values()) {
+            if (student.isEligibleForLevel(level)) levels.add(level);
+        }
+        return repo.findInternships(query.openTo(student.getMajor()).levels(levels));
     }
 
     /** #7: Students can only apply for internship opportunities relevant
@@ -26,31 +40,36 @@ public class StudentController implements IStudentController {
      their year of study) and when visibility is on*/
     @Override
     public Application applyInternship(Student student, String internshipID) {
-        // Validate internship exists
-        Internship internship = repo.findInternship(internshipID);
-        if (internship == null) throw new IllegalArgumentException("Internship not found");
-        
-        // Check if student can apply more
-        if (!student.canApplyMore())
-            throw new IllegalStateException("Max applications reached or already accepted an internship");
-        
-        // Check eligibility
-        if (!internship.isEligibleForStudent(student))
-            throw new IllegalStateException("Student not eligible for this internship");
-        
-        // Check for duplicate applications
-        for (Application app : student.getApplications()) {
-            if (app.getInternship().equals(internship))
+        Lock lock = repo.lockFor(Types.EntityType.STUDENT, student.getUserID());
+        lock.lock();
+        try {
+            // Validate internship exists
+            Internship internship = repo.findInternship(internshipID);
+            if (internship == null) throw new IllegalArgumentException("Internship not found");
+
+            // Check if student can apply more
+            if (!student.canApplyMore())
+                throw new IllegalStateException("Max applications reached or already accepted an internship");
+
+            // Check eligibility
+            if (!internship.isEligibleForStudent(student))
+                throw new IllegalStateException("Student not eligible for this internship");
+
+            // Check for duplicate applications
+            if (student.hasAppliedFor(internshipID))
                 throw new IllegalArgumentException("Already applied for this internship");
-        }
 
-        // Create application if nothing is wrong
-        String appID = student.getUserID() + "-" + internshipID;
-        Application app = new Application(appID, internship, student);
-        student.getApplications().add(app); // Add to both student and internship
-        internship.getApplications().add(app);
+            // Create application if nothing is wrong
+            Application app = new Application(student.getUserID() + "-" + internshipID, internship, student);
+            if (!student.addApplication(app)) // Add to both student and internship
+                throw new IllegalArgumentException("Already applied for this internship");
+            internship.addApplication(app);
+            repo.addApplication(app);
 
-        return app;
+            return app;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /** #8: Students continue to have access to their application details
@@ -65,53 +84,66 @@ public class StudentController implements IStudentController {
      automatically withdraws all other applications once a placement is accepted*/
     @Override
     public void acceptInternship(Student student, String applicationID) {
-        // Find the application
-        Application app = student.getApplications().stream()
-                .filter(a -> a.getApplicationID().equals(applicationID))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Application not found"));
-            
-        // Validate student hasn't already accepted
-        if (student.getAcceptedInternship() != null)
-            throw new IllegalStateException("Already accepted an internship");
-
-        // Can only accept successful application
-        if (app.getStatus() != Types.ApplicationStatus.SUCCESSFUL)
-            throw new IllegalArgumentException("Can only accept successful applications");
-
-        // Withdraw all other applications
-        for (Application other : student.getApplications()) {
-            if (!other.equals(app) && other.getStatus() != Types.ApplicationStatus.UNSUCCESSFUL) {
-                other.withdraw();
+        Lock lock = repo.lockFor(Types.EntityType.STUDENT, student.getUserID());
+        lock.lock();
+        try {
+            // Find the application
+            Application app = findStudentApplication(student, applicationID);
+
+            // Validate student hasn't already accepted
+            if (student.getAcceptedInternship() != null)
+                throw new IllegalStateException("Already accepted an internship");
+
+            // Can only accept successful application
+            if (app.getStatus() != Types.ApplicationStatus.SUCCESSFUL)
+                throw new IllegalArgumentException("Can only accept successful applications");
+
+            // Take the slot first: another student may have just filled the last one
+            app.getInternship().addSlot(student);
+
+            // Withdraw all other applications
+            for (Application other : student.getApplications()) {
+                if (!other.equals(app) && other.getStatus() != Types.ApplicationStatus.UNSUCCESSFUL) {
+                    other.withdraw();
+                    repo.markDirty(Types.EntityType.APPLICATION, other.getApplicationID());
+                }
             }
-        }
 
-        // Confirm placement
-        student.setAcceptedInternship(app);
-        app.setAccepted(true);
-        app.getInternship().addSlot(student);
+            // Confirm placement
+            student.setAcceptedInternship(app);
+            app.setAccepted(true);
+            repo.markDirty(Types.EntityType.APPLICATION, app.getApplicationID());
+            repo.markDirty(Types.EntityType.INTERNSHIP, app.getInternship().getInternshipID());
+        } finally {
+            lock.unlock();
+        }
     }
 
     /** Reject an Internship Offer*/
     @Override
     public void rejectInternship(Student student, String applicationID) {
-        Application app = student.getApplications().stream()
-                .filter(a -> a.getApplicationID().equals(applicationID))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Application not found"));
-        if (app.getStatus() != Types.ApplicationStatus.SUCCESSFUL)
-            throw new IllegalArgumentException("Can only reject successful applications");
-
-        // Mark as unsuccessful (rejected by student)
-        app.updateStatus(Types.ApplicationStatus.UNSUCCESSFUL);
-
-        // If this was the accepted internship, clear it and free slot
-        if (app == student.getAcceptedInternship()) {
-            student.setAcceptedInternship(null);
-            if (app.isAccepted()) {
-                app.getInternship().removeSlot(student);
-                app.setAccepted(false);
+        Lock lock = repo.lockFor(Types.EntityType.STUDENT, student.getUserID());
+        lock.lock();
+        try {
+            Application app = findStudentApplication(student, applicationID);
+            if (app.getStatus() != Types.ApplicationStatus.SUCCESSFUL)
+                throw new IllegalArgumentException("Can only reject successful applications");
+
+            // Mark as unsuccessful (rejected by student)
+            app.updateStatus(Types.ApplicationStatus.UNSUCCESSFUL);
+            repo.markDirty(Types.EntityType.APPLICATION, app.getApplicationID());
+
+            // If this was the accepted internship, clear it and free slot
+            if (app == student.getAcceptedInternship()) {
+                student.setAcceptedInternship(null);
+                if (app.isAccepted()) {
+                    app.getInternship().removeSlot(student);
+                    app.setAccepted(false);
+                    repo.markDirty(Types.EntityType.INTERNSHIP, app.getInternship().getInternshipID());
+                }
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -121,10 +153,7 @@ public class StudentController implements IStudentController {
     @Override
     public WithdrawalRequest requestWithdrawal(Student student, String applicationID) {
         // Find the application
-        Application app = student.getApplications().stream()
-                .filter(a -> a.getApplicationID().equals(applicationID))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Application not found"));
+        Application app = findStudentApplication(student, applicationID);
 
         // Create withdrawal request
         WithdrawalRequest wr = new WithdrawalRequest(student, app);
@@ -132,4 +161,12 @@ public class StudentController implements IStudentController {
 
         return wr;
     }
+
+    // Helper
+    private Application findStudentApplication(Student student, String applicationID) {
+        Application app = repo.findApplication(applicationID);
+        if (app == null || app.getStudent() != student)
+            throw new IllegalArgumentException("Application not found");
+        return app;
+    }
 }
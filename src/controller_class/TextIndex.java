@@ -0,0 +1,120 @@
+package controller_class;
+
+import entity_class.*;
+import java.util.*;
+
+/**
+ * Inverted index over the words of internship titles, descriptions and
+ * company names. Words are runs of letters and digits, lower-cased. Each
+ * posting holds a field-weighted term frequency, so a title word counts
+ * more than a description word.
+ *
+ * A query is a list of words that must all match; a word ending in '*'
+ * matches every indexed word starting with it. Results are ranked by the
+ * sum of weight x idf over the matched words.
+ */
+class TextIndex {
+    private static final int TITLE_WEIGHT = 3;
+    private static final int COMPANY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Sorted so that a prefix is a contiguous range of words
+    private final TreeMap<String, Map<Internship, Integer>> postings = new TreeMap<>();
+    private int documents;
+
+    /** Add an internship; call with its current text */
+    void add(Internship internship) {
+        for (Map.Entry<String, Integer> e : weights(internship).entrySet()) {
+            postings.computeIfAbsent(e.getKey(), t -> new HashMap<>()).put(internship, e.getValue());
+        }
+        documents++;
+    }
+
+    /** Remove an internship; call before its text changes */
+    void remove(Internship internship) {
+        for (String term : weights(internship).keySet()) {
+            Map<Internship, Integer> posting = postings.get(term);
+            if (posting == null) continue;
+            posting.remove(internship);
+            if (posting.isEmpty()) postings.remove(term);
+        }
+        documents--;
+    }
+
+    /**
+     * @param query words to match, each optionally ending in '*'
+     * @return internships matching every word, best match first
+     */
+    List<Internship> search(String query) {
+        Map<Internship, Double> scores = null;
+        for (String chunk : query.trim().split("\\s+")) {
+            boolean prefix = chunk.endsWith("*");
+            List<String> terms = tokenize(chunk);
+            for (int k = 0; k < terms.size(); k++) {
+                Map<Internship, Double> matched = match(terms.get(k), prefix && k == terms.size() - 1);
+                if (scores == null) {
+                    scores = matched;
+                } else {
+                    scores.keySet().retainAll(matched.keySet());
+                    for (Map.Entry<Internship, Double> e : scores.entrySet()) {
+                        e.setValue(e.getValue() + matched.get(e.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) return new ArrayList<>();
+            }
+        }
+        if (scores == null) return new ArrayList<>();
+        List<Map.Entry<Internship, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Double.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : a.getKey().getInternshipID().compareTo(b.getKey().getInternshipID());
+        });
+        List<Internship> result = new ArrayList<>(ranked.size());
+        for (Map.Entry<Internship, Double> e : ranked) result.add(e.getKey());
+        return result;
+    }
+
+    /** Score every internship containing a word (or a word with this prefix) */
+    private Map<Internship, Double> match(String term, boolean prefix) {
+        Map<String, Map<Internship, Integer>> range = prefix
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                : postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of();
+        Map<Internship, Double> scores = new HashMap<>();
+        for (Map<Internship, Integer> posting : range.values()) {
+            double idf = Math.log(1.0 + (double) documents / posting.size());
+            for (Map.Entry<Internship, Integer> e : posting.entrySet()) {
+                scores.merge(e.getKey(), e.getValue() * idf, Double::sum);
+            }
+        }
+        return scores;
+    }
+
+    private static Map<String, Integer> weights(Internship internship) {
+        Map<String, Integer> weights = new HashMap<>();
+        addWeights(weights, internship.getTitle(), TITLE_WEIGHT);
+        addWeights(weights, internship.getCompanyName(), COMPANY_WEIGHT);
+        addWeights(weights, internship.getDescription(), DESCRIPTION_WEIGHT);
+        return weights;
+    }
+
+    private static void addWeights(Map<String, Integer> weights, String text, int weight) {
+        if (text == null) return;
+        for (String term : tokenize(text)) weights.merge(term, weight, Integer::sum);
+    }
+
+    /** Split text into lower-case runs of letters and digits */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int k = 0; k <= text.length(); k++) {
+            boolean word = k < text.length() && Character.isLetterOrDigit(text.charAt(k));
+            if (word && start < 0) {
+                start = k;
+            } else if (!word && start >= 0) {
+                terms.add(text.substring(start, k).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,80 @@
+package controller_class;
+
+import java.util.*;
+
+/**
+ * Case-folded trigram index from names (company or rep names) to the
+ * values carrying them. A substring query of three or more characters
+ * intersects the name sets of its trigrams, smallest first, checks the
+ * surviving names, and only then touches their values.
+ *
+ * @param <T> the values indexed under each name
+ */
+class TrigramIndex<T> {
+    static final int MIN_QUERY = 3;
+
+    private final Map<String, Set<T>> byName = new HashMap<>();
+    private final Map<String, Set<String>> namesByTrigram = new HashMap<>();
+
+    void add(String name, T value) {
+        if (name == null) return;
+        String folded = fold(name);
+        Set<T> values = byName.get(folded);
+        if (values == null) {
+            values = new LinkedHashSet<>();
+            byName.put(folded, values);
+            for (String gram : trigrams(folded)) {
+                namesByTrigram.computeIfAbsent(gram, g -> new HashSet<>()).add(folded);
+            }
+        }
+        values.add(value);
+    }
+
+    void remove(String name, T value) {
+        if (name == null) return;
+        String folded = fold(name);
+        Set<T> values = byName.get(folded);
+        if (values == null || !values.remove(value) || !values.isEmpty()) return;
+        byName.remove(folded);
+        for (String gram : trigrams(folded)) {
+            Set<String> names = namesByTrigram.get(gram);
+            if (names == null) continue;
+            names.remove(folded);
+            if (names.isEmpty()) namesByTrigram.remove(gram);
+        }
+    }
+
+    /**
+     * @param fragment substring to look for, ignoring case; at least {@link #MIN_QUERY} characters
+     * @return values whose name contains the fragment
+     */
+    List<T> find(String fragment) {
+        String folded = fold(fragment);
+        if (folded.length() < MIN_QUERY) throw new IllegalArgumentException("fragment too short for the trigram index");
+        List<Set<String>> postings = new ArrayList<>();
+        for (String gram : trigrams(folded)) {
+            Set<String> names = namesByTrigram.get(gram);
+            if (names == null) return new ArrayList<>();
+            postings.add(names);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        List<T> result = new ArrayList<>();
+        for (String name : postings.get(0)) {
+            boolean candidate = true;
+            for (int k = 1; k < postings.size() && candidate; k++) candidate = postings.get(k).contains(name);
+            // trigrams can match out of order, so confirm the substring
+            if (candidate && name.contains(folded)) result.addAll(byName.get(name));
+        }
+        return result;
+    }
+
+    static String fold(String s) {
+        return s.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String folded) {
+        Set<String> grams = new HashSet<>();
+        for (int k = 0; k + MIN_QUERY <= folded.length(); k++) grams.add(folded.substring(k, k + MIN_QUERY));
+        return grams;
+    }
+}
@@ -0,0 +1,68 @@
+package entity_class;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Shared clock for date checks. Dates are whole days (days since
+ * 1970-01-01 in the clock's zone), and the current day is cached: a read
+ * costs one millisecond-clock lookup and a compare, and the cached day only
+ * moves when that lookup passes the next midnight. Tests and demos can swap
+ * in any {@link Clock} with {@link #use(Clock)}.
+ */
+public final class AppClock {
+    /** Epoch day standing for "no date" */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static volatile State state = new State(Clock.systemDefaultZone());
+
+    /** The time source with its current day, swapped as a whole so readers never see a mix */
+    private static final class State {
+        final Clock source;
+        final int today;
+        final long nextMidnight;
+
+        State(Clock source) {
+            this.source = source;
+            LocalDate date = LocalDate.now(source);
+            this.today = (int) date.toEpochDay();
+            this.nextMidnight = date.plusDays(1).atStartOfDay(source.getZone()).toInstant().toEpochMilli();
+        }
+    }
+
+    private AppClock() {}
+
+    /**
+     * Replace the time source, for tests or a fixed-date demo.
+     * @param clock the new source; {@code Clock.systemDefaultZone()} restores the default
+     */
+    public static void use(Clock clock) { state = new State(clock); }
+
+    /** Re-read the time source; needed only if it can move backwards. */
+    public static void tick() { state = new State(state.source); }
+
+    /** @return the current day as an epoch day */
+    public static int today() {
+        State s = state;
+        if (s.source.millis() < s.nextMidnight) return s.today;
+        s = new State(s.source);
+        state = s;
+        return s.today;
+    }
+
+    public static ZoneId zone() { return state.source.getZone(); }
+
+    /** @return the epoch day of a date in the clock's zone, or {@link #NO_DATE} for null */
+    public static int toEpochDay(Date date) {
+        if (date == null) return NO_DATE;
+        return (int) date.toInstant().atZone(zone()).toLocalDate().toEpochDay();
+    }
+
+    /** @return midnight starting an epoch day in the clock's zone, or null for {@link #NO_DATE} */
+    public static Date toDate(int epochDay) {
+        if (epochDay == NO_DATE) return null;
+        return Date.from(LocalDate.ofEpochDay(epochDay).atStartOfDay(zone()).toInstant());
+    }
+}
@@ -6,7 +6,7 @@ public class Application {
     private Internship internship;
     private Student student;
     private LocalDateTime applicationDate;
-    private Types.ApplicationStatus status;
+    private volatile Types.ApplicationStatus status;
     private boolean isAccepted;
 
     /**
@@ -30,7 +30,11 @@ public class Application {
      * @param newStatus the new application status
     */
     public void updateStatus(Types.ApplicationStatus newStatus) {
-        this.status = newStatus;
+        synchronized (student) {
+            Types.ApplicationStatus old = status;
+            this.status = newStatus;
+            student.applicationStatusChanged(this, old, newStatus);
+        }
     }
 
     /** 
@@ -39,7 +43,7 @@ public class Application {
      */
     public void withdraw() {
         this.isAccepted = false;
-        status = Types.ApplicationStatus.UNSUCCESSFUL;
+        updateStatus(Types.ApplicationStatus.UNSUCCESSFUL);
     }
 
     /** 
@@ -1,13 +1,18 @@
 package entity_class;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class CompanyRep extends User implements ICompanyRep {
     private String companyName;
     private boolean isApproved = false;
     private String department;
     private String position;
-    private List<Internship> createdInternships;
+    // In creation order; the map and count are guarded by this
+    private final Map<String, Internship> createdInternships = new LinkedHashMap<>();
+    private int activeInternships; // created internships not REJECTED
+    private IStatusObserver<CompanyRep> observer; // repository counting approved reps, if any
     private static final int MAX_APPROVED_INTERNSHIPS = 5;
 
     /**
@@ -23,7 +28,6 @@ public class CompanyRep extends User implements ICompanyRep {
         this.companyName = companyName;
         this.department = department;
         this.position = position;
-        this.createdInternships = new ArrayList<>();
         if (!validateID()) {
             throw new IllegalArgumentException("Invalid ID format");
         }
@@ -44,7 +48,6 @@ public class CompanyRep extends User implements ICompanyRep {
         this.companyName = companyName;
         this.department = department;
         this.position = position;
-        this.createdInternships = new ArrayList<>();
         if (!validateID()) {
             throw new IllegalArgumentException("Invalid ID format");
         }
@@ -86,22 +89,55 @@ public class CompanyRep extends User implements ICompanyRep {
      * Checks if the company representative can create more internships
      * @return true if they can create more, false otherwise
      */
-    public boolean canCreateMoreInternships() {
-        long approvedCount = createdInternships.stream()
-                .filter(i -> i.getStatus() != Types.InternshipStatus.REJECTED)
-                .count();
-        return approvedCount < MAX_APPROVED_INTERNSHIPS;
+    public synchronized boolean canCreateMoreInternships() {
+        return activeInternships < MAX_APPROVED_INTERNSHIPS;
     }
 
+    /**
+     * Counts the created internships that are not rejected
+     * @return number of internships counting towards the limit
+     */
+    public synchronized int getActiveInternshipCount() { return activeInternships; }
+
     /**
      * Finds an internship by its ID among the created internships
      * @param internshipID the ID of the internship to find
+     * @return the internship, or null if this representative did not create it
      */
-    public Internship findInternshipByID(String internshipID) {
-        return createdInternships.stream()
-                .filter(i -> i.getInternshipID().equals(internshipID))
-                .findFirst()
-                .orElse(null);
+    public synchronized Internship findInternshipByID(String internshipID) {
+        return createdInternships.get(internshipID);
+    }
+
+    /**
+     * Adds an internship to the created internships, replacing any with the same ID
+     * @param internship the internship to add
+     */
+    public synchronized void addCreatedInternship(Internship internship) {
+        Internship replaced = createdInternships.put(internship.getInternshipID(), internship);
+        if (replaced != null && isActive(replaced.getStatus())) activeInternships--;
+        if (isActive(internship.getStatus())) activeInternships++;
+    }
+
+    /**
+     * Removes an internship from the created internships
+     * @param internshipID the ID of the internship to remove
+     * @return the removed internship, or null if there was none
+     */
+    public synchronized Internship removeCreatedInternship(String internshipID) {
+        Internship removed = createdInternships.remove(internshipID);
+        if (removed != null && isActive(removed.getStatus())) activeInternships--;
+        return removed;
+    }
+
+    /** Called by a created internship when its status changes, while holding this representative's lock */
+    void internshipStatusChanged(Internship internship, Types.InternshipStatus from, Types.InternshipStatus to) {
+        if (createdInternships.get(internship.getInternshipID()) != internship) return; // not added yet
+        if (isActive(from)) activeInternships--;
+        if (isActive(to)) activeInternships++;
+    }
+
+    private static boolean isActive(Types.InternshipStatus status) {
+        return status != Types.InternshipStatus.REJECTED;
     }
 
     /**
@@ -111,9 +147,26 @@ public class CompanyRep extends User implements ICompanyRep {
     public String getDepartment() { return department; }
     public String getPosition() { return position; }
     public boolean isApproved() { return isApproved; }
-    public void setApproved(boolean approval) { this.isApproved = approval; }
-    public List<Internship> getCreatedInternships() { return createdInternships; }
+    public synchronized void setApproved(boolean approval) {
+        IStatusObserver<CompanyRep> o = observer;
+        if (o != null) o.beforeChange(this);
+        try {
+            this.isApproved = approval;
+        } finally {
+            if (o != null) o.afterChange(this);
+        }
+    }
+    /** @return a read-only copy of the created internships, in creation order */
+    public synchronized Collection<Internship> getCreatedInternships() {
+        return List.copyOf(createdInternships.values());
+    }
     public static int getMaxApprovedInternships() { return MAX_APPROVED_INTERNSHIPS; }
+
+    /**
+     * Set the observer told about approval changes.
+     * @param observer the observer, or null to stop observing
+     */
+    public synchronized void setObserver(IStatusObserver<CompanyRep> observer) { this.observer = observer; }
 }
 
 
@@ -1,6 +1,6 @@
 package entity_class;
 
-import java.util.List;
+import java.util.Collection;
 
 /**
  * Company representative-specific interface extending {@link IUser}. This
@@ -14,7 +14,10 @@ public interface ICompanyRep extends IUser {
     String getPosition();
     boolean isApproved();
     void setApproved(boolean approval);
-    List<Internship> getCreatedInternships();
+    Collection<Internship> getCreatedInternships();
     boolean canCreateMoreInternships();
+    int getActiveInternshipCount();
     Internship findInternshipByID(String internshipID);
+    void addCreatedInternship(Internship internship);
+    Internship removeCreatedInternship(String internshipID);
 }
@@ -0,0 +1,13 @@
+package entity_class;
+
+/**
+ * Observer told when a field of an {@link Internship} that a repository
+ * indexes is about to change and once it has changed. Between the two
+ * calls the internship still holds its old values on entry to
+ * {@link #beforeChange} and its new values on entry to {@link #afterChange},
+ * so an index can remove the old entry and add the new one.
+ */
+public interface IInternshipObserver {
+    void beforeChange(Internship internship);
+    void afterChange(Internship internship);
+}
@@ -0,0 +1,12 @@
+package entity_class;
+
+/**
+ * Observer told when the approval or status of an entity is about to
+ * change and once it has changed, like {@link IInternshipObserver}, so a
+ * repository can keep counts by status current without rescanning.
+ * @param <T> the observed entity type
+ */
+public interface IStatusObserver<T> {
+    void beforeChange(T entity);
+    void afterChange(T entity);
+}
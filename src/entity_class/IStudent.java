@@ -17,6 +17,8 @@ public interface IStudent extends IUser {
     int getMaxApplications();
     int getActiveApplicationCount();
     boolean canApplyMore();
+    boolean addApplication(Application app);
+    boolean hasAppliedFor(String internshipID);
     boolean isEligibleForLevel(Types.InternshipLevel level);
     Application findApplicationByID(String applicationID);
 }
@@ -1,17 +1,21 @@
 package entity_class;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 public class Internship {
     private String internshipID;
     private String title;
     private String description;
     private Types.InternshipLevel level;
-    private List<Types.Major> preferredMajor;
-    private Date openDate;
-    private Date closeDate;
+    private int preferredMajors; // bit (1 << ordinal) per preferred major
+    private int openDay = AppClock.NO_DATE;  // epoch days, see AppClock
+    private int closeDay = AppClock.NO_DATE;
     private Types.InternshipStatus status;
     private CompanyRep companyRepresentative;
     private String companyName;
@@ -20,6 +24,7 @@ public class Internship {
     private List<Student> interns; // students who accepted offer
     private List<Application> applications;
     private boolean isVisible;
+    private volatile IInternshipObserver observer; // repository indexing this internship, if any
 
     /**  
      * Constructor using only an ID
@@ -30,7 +35,6 @@ public class Internship {
         this.title = "Default Title";
         this.description = "Default Description";
         this.level = Types.InternshipLevel.BASIC;
-        this.preferredMajor = new ArrayList<>();
         this.status = Types.InternshipStatus.PENDING;
         this.numberOfSlots = 5;
         this.confirmedSlots = 0;
@@ -78,9 +82,9 @@ public class Internship {
         this.title = title;
         this.description = description;
         this.level = level != null ? level : Types.InternshipLevel.BASIC;
-        this.preferredMajor = preferredMajor != null ? new ArrayList<>(preferredMajor) : new ArrayList<>();
-        this.openDate = openDate;
-        this.closeDate = closeDate;
+        this.preferredMajors = preferredMajor != null ? majorMask(preferredMajor) : 0;
+        this.openDay = AppClock.toEpochDay(openDate);
+        this.closeDay = AppClock.toEpochDay(closeDate);
         this.companyName = companyName;
         this.companyRepresentative = companyRep;
         this.numberOfSlots = numberOfSlots;
@@ -99,7 +103,7 @@ public class Internship {
     public boolean isEligibleForStudent(Student student) {
         if (student == null) return false;
         // Major match
-        if (!preferredMajor.contains(student.getMajor())) {
+        if (!prefersMajor(student.getMajor())) {
             return false;
         }
         // Year eligibility: Y1 & Y2 only for BASIC, Y3+ for all
@@ -115,11 +119,21 @@ public class Internship {
      * @return true if open, false otherwise
      */
     public boolean isOpen() {
-        Date now = new Date();
+        return isOpenOn(AppClock.today());
+    }
+
+    /**
+     * Check if internship is open on a day: from its open day up to, but not
+     * including, its close day
+     * @param epochDay the day, in days since 1970-01-01
+     * @return true if open, false otherwise
+     */
+    public boolean isOpenOn(int epochDay) {
         return status == Types.InternshipStatus.APPROVED &&
                 isVisible &&
-                openDate.before(now) &&
-                closeDate.after(now) &&
+                hasWindow() &&
+                openDay <= epochDay &&
+                closeDay > epochDay &&
                 confirmedSlots < numberOfSlots;
     }
 
@@ -127,15 +141,20 @@ public class Internship {
      * Add confirmed intern 
      * @param student the student to add as confirmed intern
      */
-    public void addSlot(Student student) {
+    public synchronized void addSlot(Student student) {
         if (confirmedSlots >= numberOfSlots) {
             throw new IllegalStateException("No available slots");
         }
-        confirmedSlots++;
-        interns.add(student);
-        // Automatically update status if filled
-        if (confirmedSlots == numberOfSlots) {
-            status = Types.InternshipStatus.FILLED;
+        IInternshipObserver o = beforeChange();
+        try {
+            confirmedSlots++;
+            interns.add(student);
+            // Automatically update status if filled
+            if (confirmedSlots == numberOfSlots) {
+                status = Types.InternshipStatus.FILLED;
+            }
+        } finally {
+            afterChange(o);
         }
     }
 
@@ -143,16 +162,53 @@ public class Internship {
      * Remove confirmed intern 
      * @param student the student to remove from confirmed interns
      */
-    public void removeSlot(Student student) {
-        if (!interns.remove(student)) {
+    public synchronized void removeSlot(Student student) {
+        if (!interns.contains(student)) {
             throw new IllegalArgumentException("Student not in confirmed interns list");
         }
 
-        confirmedSlots--;
+        IInternshipObserver o = beforeChange();
+        try {
+            interns.remove(student);
+            confirmedSlots--;
+
+            // Revert status if no longer filled
+            if (status == Types.InternshipStatus.FILLED) {
+                status = Types.InternshipStatus.APPROVED;
+            }
+        } finally {
+            afterChange(o);
+        }
+    }
+
+    /**
+     * Record a confirmed intern read back from saved data. Unlike addSlot it
+     * neither checks capacity nor changes the status, which were saved too.
+     * @param student the student to record
+     */
+    public synchronized void linkIntern(Student student) {
+        if (interns.contains(student)) return;
+        IInternshipObserver o = beforeChange();
+        try {
+            interns.add(student);
+            confirmedSlots++;
+        } finally {
+            afterChange(o);
+        }
+    }
 
-        // Revert status if no longer filled
-        if (status == Types.InternshipStatus.FILLED) {
-            status = Types.InternshipStatus.APPROVED;
+    /**
+     * Drop a confirmed intern recorded by {@link #linkIntern}, without changing the status
+     * @param student the student to drop
+     */
+    public synchronized void unlinkIntern(Student student) {
+        if (!interns.contains(student)) return;
+        IInternshipObserver o = beforeChange();
+        try {
+            interns.remove(student);
+            confirmedSlots--;
+        } finally {
+            afterChange(o);
         }
     }
 
@@ -162,50 +218,216 @@ public class Internship {
     public String getInternshipID() { return internshipID; }
 
     public String getTitle() { return title; }
-    public void setTitle(String title) { this.title = title; }
+    public void setTitle(String title) {
+        IInternshipObserver o = beforeChange();
+        try {
+            this.title = title;
+        } finally {
+            afterChange(o);
+        }
+    }
 
     public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) {
+        IInternshipObserver o = beforeChange();
+        try {
+            this.description = description;
+        } finally {
+            afterChange(o);
+        }
+    }
 
     public Types.InternshipLevel getLevel() { return level; }
-    public void setLevel(Types.InternshipLevel level) { this.level = level; }
+    public void setLevel(Types.InternshipLevel level) {
+        if (level == this.level) return;
+        IInternshipObserver o = beforeChange();
+        try {
+            this.level = level;
+        } finally {
+            afterChange(o);
+        }
+    }
+
+    /** @return a copy of the preferred majors, in declaration order; change them through the methods below */
+    public Set<Types.Major> getPreferredMajor() {
+        Set<Types.Major> majors = EnumSet.noneOf(Types.Major.class);
+        for (Types.Major major : Types.Major.values()) {
+            if (prefersMajor(major)) majors.add(major);
+        }
+        return majors;
+    }
 
-    public List<Types.Major> getPreferredMajor() { return preferredMajor; }
+    /** @return the preferred majors as a mask with bit (1 << ordinal) set per major */
+    public int getPreferredMajorMask() { return preferredMajors; }
 
-    public Date getOpenDate() { return openDate; }
-    public void setOpenDate(Date openDate) { this.openDate = openDate; }
+    public boolean prefersMajor(Types.Major major) { return (preferredMajors & majorBit(major)) != 0; }
 
-    public Date getCloseDate() { return closeDate; }
-    public void setCloseDate(Date closeDate) { this.closeDate = closeDate; }
+    /** @return true if any major in the mask is preferred */
+    public boolean prefersAnyMajor(int mask) { return (preferredMajors & mask) != 0; }
+
+    /** @return true if the major was added, false if it was already preferred */
+    public boolean addPreferredMajor(Types.Major major) {
+        if (prefersMajor(major)) return false;
+        setPreferredMajorMask(preferredMajors | majorBit(major));
+        return true;
+    }
+
+    /** @return true if the major was preferred */
+    public boolean removePreferredMajor(Types.Major major) {
+        if (!prefersMajor(major)) return false;
+        setPreferredMajorMask(preferredMajors & ~majorBit(major));
+        return true;
+    }
+
+    public void setPreferredMajors(Collection<Types.Major> majors) {
+        setPreferredMajorMask(majorMask(majors));
+    }
+
+    public void setPreferredMajorMask(int mask) {
+        IInternshipObserver o = beforeChange();
+        try {
+            preferredMajors = mask;
+        } finally {
+            afterChange(o);
+        }
+    }
+
+    /** @return the mask bit of a major; {@link Types.Major} must stay within 32 constants */
+    public static int majorBit(Types.Major major) { return 1 << major.ordinal(); }
+
+    public static int majorMask(Collection<Types.Major> majors) {
+        int mask = 0;
+        for (Types.Major major : majors) mask |= majorBit(major);
+        return mask;
+    }
+
+    /** @return midnight of the open day, or null; a new object on every call */
+    public Date getOpenDate() { return AppClock.toDate(openDay); }
+    public void setOpenDate(Date openDate) { setOpenDay(AppClock.toEpochDay(openDate)); }
+
+    /** @return the open day in epoch days, or {@link AppClock#NO_DATE} */
+    public int getOpenDay() { return openDay; }
+    public void setOpenDay(int epochDay) {
+        IInternshipObserver o = beforeChange();
+        try {
+            this.openDay = epochDay;
+        } finally {
+            afterChange(o);
+        }
+    }
+
+    /** @return midnight of the close day, or null; a new object on every call */
+    public Date getCloseDate() { return AppClock.toDate(closeDay); }
+    public void setCloseDate(Date closeDate) { setCloseDay(AppClock.toEpochDay(closeDate)); }
+
+    /** @return the close day in epoch days, or {@link AppClock#NO_DATE} */
+    public int getCloseDay() { return closeDay; }
+    public void setCloseDay(int epochDay) {
+        IInternshipObserver o = beforeChange();
+        try {
+            this.closeDay = epochDay;
+        } finally {
+            afterChange(o);
+        }
+    }
+
+    /** @return true if both the open and the close day are set */
+    public boolean hasWindow() { return openDay != AppClock.NO_DATE && closeDay != AppClock.NO_DATE; }
 
     public Types.InternshipStatus getStatus() { return status; }
-    public void setStatus(Types.InternshipStatus status) { this.status = status; }
+    public void setStatus(Types.InternshipStatus status) {
+        if (status == this.status) return;
+        CompanyRep rep = companyRepresentative;
+        if (rep == null) {
+            changeStatus(status, null);
+        } else {
+            synchronized (rep) { // the rep's lock comes before the index lock beforeChange takes
+                changeStatus(status, rep);
+            }
+        }
+    }
+
+    private void changeStatus(Types.InternshipStatus status, CompanyRep rep) {
+        IInternshipObserver o = beforeChange();
+        try {
+            Types.InternshipStatus old = this.status;
+            this.status = status;
+            if (rep != null) rep.internshipStatusChanged(this, old, status);
+        } finally {
+            afterChange(o);
+        }
+    }
 
     public CompanyRep getCompanyRepresentative() { return companyRepresentative; }
     public void setCompanyRepresentative(CompanyRep rep) { this.companyRepresentative = rep; }
 
     public String getCompanyName() { return companyName; }
-    public void setCompanyName(String name) { this.companyName = name; }
+    public void setCompanyName(String name) {
+        if (Objects.equals(name, this.companyName)) return;
+        IInternshipObserver o = beforeChange();
+        try {
+            this.companyName = name;
+        } finally {
+            afterChange(o);
+        }
+    }
 
     public int getNumberOfSlots() { return numberOfSlots; }
-    public void setNumberOfSlots(int slots) {
+    public synchronized void setNumberOfSlots(int slots) {
         if (slots < 1 || slots > 10) {
             throw new IllegalArgumentException("Slots must be between 1 and 10");
         }
         if (slots < confirmedSlots) {
             throw new IllegalStateException("Cannot set slots below confirmed count");
         }
-        this.numberOfSlots = slots;
+        if (slots == numberOfSlots) return;
+        IInternshipObserver o = beforeChange();
+        try {
+            this.numberOfSlots = slots;
+        } finally {
+            afterChange(o);
+        }
     }
 
     public int getConfirmedSlots() { return confirmedSlots; }
 
-    public List<Student> getInterns() { return interns; }
+    /** @return a read-only copy of the confirmed interns; change them through addSlot and removeSlot */
+    public synchronized List<Student> getInterns() { return List.copyOf(interns); }
+
+    /** @return a read-only copy of the applications for this internship */
+    public synchronized List<Application> getApplications() { return List.copyOf(applications); }
 
-    public List<Application> getApplications() { return applications; }
+    public synchronized void addApplication(Application application) { applications.add(application); }
 
     public boolean isVisible() { return isVisible; }
-    public void setVisible(boolean visible) { this.isVisible = visible; }
+    public void setVisible(boolean visible) {
+        if (visible == isVisible) return;
+        IInternshipObserver o = beforeChange();
+        try {
+            this.isVisible = visible;
+        } finally {
+            afterChange(o);
+        }
+    }
+
+    /**
+     * Set the observer told about changes to indexed fields: title,
+     * description, status, level, company name, preferred majors, dates,
+     * visibility and slots.
+     * @param observer the observer, or null to stop observing
+     */
+    public void setObserver(IInternshipObserver observer) { this.observer = observer; }
+
+    /** @return the observer told, to be passed to afterChange so both calls reach the same one */
+    private IInternshipObserver beforeChange() {
+        IInternshipObserver o = observer;
+        if (o != null) o.beforeChange(this);
+        return o;
+    }
+
+    private void afterChange(IInternshipObserver o) {
+        if (o != null) o.afterChange(this);
+    }
 
 }
 
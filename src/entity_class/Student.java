@@ -1,12 +1,17 @@
 package entity_class;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Student extends User implements IStudent {
     private int yearOfStudy;
     private final Types.Major major;
-    private List<Application> applications;
+    private final List<Application> applications;
+    // Kept current by addApplication and the Application status setters; guarded by this
+    private final Map<String, Application> applicationsByInternship = new HashMap<>();
+    private int activeApplications;
     private Application acceptedInternship;
     private static final int MAX_APPLICATIONS = 3;
 
@@ -96,24 +101,49 @@ public class Student extends User implements IStudent {
      * Count active applications
      * @return number of active applications
      */
-    public int getActiveApplicationCount() {
-        int count = 0;
-        for (Application app : applications) {
-            Types.ApplicationStatus status = app.getStatus();
-            if (status == Types.ApplicationStatus.PENDING ||
-                    status == Types.ApplicationStatus.SUCCESSFUL) {
-                count++;
-            }
-        }
-        return count;
+    public synchronized int getActiveApplicationCount() {
+        return activeApplications;
     }
 
     /**
      * Check if student can apply for more internships
      * @return true if eligible to apply, false otherwise
      */
-    public boolean canApplyMore() {
-        return getActiveApplicationCount() < MAX_APPLICATIONS && acceptedInternship == null;
+    public synchronized boolean canApplyMore() {
+        return activeApplications < MAX_APPLICATIONS && acceptedInternship == null;
+    }
+
+    /**
+     * Add an application to this student's list
+     * @param app the application, which must belong to this student
+     * @return false if the student already has an application for that internship
+     */
+    public synchronized boolean addApplication(Application app) {
+        String internshipID = app.getInternship().getInternshipID();
+        if (applicationsByInternship.putIfAbsent(internshipID, app) != null) return false;
+        applications.add(app);
+        if (isActive(app.getStatus())) activeApplications++;
+        return true;
+    }
+
+    /**
+     * Check for an existing application
+     * @param internshipID the internship to check
+     * @return true if the student has applied for it
+     */
+    public synchronized boolean hasAppliedFor(String internshipID) {
+        return applicationsByInternship.containsKey(internshipID);
+    }
+
+    /** Called by an application of this student when its status changes, while holding this student's lock */
+    void applicationStatusChanged(Application app, Types.ApplicationStatus from, Types.ApplicationStatus to) {
+        if (applicationsByInternship.get(app.getInternship().getInternshipID()) != app) return; // not added yet
+        if (isActive(from)) activeApplications--;
+        if (isActive(to)) activeApplications++;
+    }
+
+    private static boolean isActive(Types.ApplicationStatus status) {
+        return status == Types.ApplicationStatus.PENDING || status == Types.ApplicationStatus.SUCCESSFUL;
     }
 
     /**
@@ -121,7 +151,7 @@ public class Student extends User implements IStudent {
      * @param applicationID the ID of the application to find
      * @return the Application object if found, null otherwise
      */
-    public Application findApplicationByID(String applicationID) {
+    public synchronized Application findApplicationByID(String applicationID) {
         return applications.stream()
                 .filter(app -> app.getApplicationID().equals(applicationID))
                 .findFirst()
@@ -133,9 +163,10 @@ public class Student extends User implements IStudent {
      */
     public Types.Major getMajor() { return major; }
     public int getYearOfStudy() { return yearOfStudy; }
-    public List<Application> getApplications() { return applications; }
-    public Application getAcceptedInternship() { return acceptedInternship; }
-    public void setAcceptedInternship(Application app) { this.acceptedInternship = app; }
+    /** @return a read-only copy of the applications, in the order they were made */
+    public synchronized List<Application> getApplications() { return List.copyOf(applications); }
+    public synchronized Application getAcceptedInternship() { return acceptedInternship; }
+    public synchronized void setAcceptedInternship(Application app) { this.acceptedInternship = app; }
     public int getMaxApplications() { return MAX_APPLICATIONS; }
 
 }
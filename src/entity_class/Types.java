@@ -7,4 +7,5 @@ public class Types {
     public enum InternshipStatus { PENDING, APPROVED, REJECTED, FILLED }
     public enum InternshipLevel { BASIC, INTERMEDIATE, ADVANCED }
     public enum WithdrawalStatus { PENDING, APPROVED, REJECTED }
+    public enum EntityType { STUDENT, CAREER_STAFF, COMPANY_REP, INTERNSHIP, APPLICATION, WITHDRAWAL }
 }
@@ -7,6 +7,7 @@ public class WithdrawalRequest {
     private Student student;
     private LocalDateTime requestDate;
     private Types.WithdrawalStatus status;
+    private IStatusObserver<WithdrawalRequest> observer; // repository counting requests by status, if any
 
     /** 
      * Constructor for WithdrawalRequest
@@ -31,7 +32,15 @@ public class WithdrawalRequest {
     public LocalDateTime getRequestDate() { return requestDate; }
     public Types.WithdrawalStatus getStatus() { return status; }
     
-    public void setStatus(Types.WithdrawalStatus status) { this.status = status; }
+    public synchronized void setStatus(Types.WithdrawalStatus status) {
+        IStatusObserver<WithdrawalRequest> o = observer;
+        if (o != null) o.beforeChange(this);
+        try {
+            this.status = status;
+        } finally {
+            if (o != null) o.afterChange(this);
+        }
+    }
 
     public void setRequestID(String requestID) {
         this.requestID = requestID;
@@ -40,4 +49,10 @@ public class WithdrawalRequest {
     public void setRequestDate(LocalDateTime requestDate) {
         this.requestDate = requestDate;
     }
+
+    /**
+     * Set the observer told about status changes.
+     * @param observer the observer, or null to stop observing
+     */
+    public synchronized void setObserver(IStatusObserver<WithdrawalRequest> observer) { this.observer = observer; }
 }
@@ -6,6 +6,8 @@ import entity_class.*;
 
 
 public class MainApplication {
+    // Longest time the exit waits for the final save before leaving it to the journal
+    private static final long SHUTDOWN_SAVE_TIMEOUT_MILLIS = 10_000;
 
     /**
      * Entry point for the Internship Placement Management System.
@@ -40,7 +42,8 @@ public class MainApplication {
             IDataRepo repo = DataRepo.getInstance();
 
             // Initialize CSV handler and load all data (use the IFileHandler abstraction)
-            IFileHandler fileHandler = new FileHandler();
+            // -DmappedLoading=true parses large internship/application files on all cores
+            IFileHandler fileHandler = new FileHandler(Boolean.getBoolean("mappedLoading"));
 
             boolean loadSuccess = fileHandler.loadAllData(repo);
             if (!loadSuccess) {
@@ -54,8 +57,12 @@ public class MainApplication {
             ICompanyRepController companyRepController = new CompanyRepController(repo);
             ICareerStaffController careerStaffController = new CareerStaffController(repo);
 
+            // Save in the background so logout never waits for the disk
+            PersistenceWorker persistence = new PersistenceWorker(fileHandler, repo);
+            persistence.addShutdownHook(SHUTDOWN_SAVE_TIMEOUT_MILLIS);
+
             // Initialize registration UI for company representatives
-            CompanyRepRegistrationUI registrationUI = new CompanyRepRegistrationUI(repo, fileHandler);
+            CompanyRepRegistrationUI registrationUI = new CompanyRepRegistrationUI(repo, persistence);
 
             // Initialize login UI (delegate registration to registrationUI)
             LoginUI loginUI = new LoginUI(loginController, fileHandler, registrationUI);
@@ -85,12 +92,14 @@ public class MainApplication {
 
                 // Display logout message
                 loginUI.displayLogoutMessage();
-                // Save all data after user logs out
-                fileHandler.saveAllData(repo);
+                // Save all data after user logs out (written in the background)
+                persistence.requestSave();
             }
 
-            // Final save before exiting
-            fileHandler.saveAllData(repo);
+            // Final save before exiting: finish background saves and fold the journal into the CSV files
+            if (!persistence.shutdown(SHUTDOWN_SAVE_TIMEOUT_MILLIS)) {
+                System.err.println("Final save is taking too long; unsaved changes stay in the journal and are restored on the next start");
+            }
             displayExitMessage();
         } catch (Exception e) {
             System.err.println("\nCritical error: " + e.getMessage());
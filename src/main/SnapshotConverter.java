@@ -0,0 +1,47 @@
+package main;
+
+import boundary.*;
+import controller_class.*;
+
+/**
+ * Converts the stored data between the CSV files and the binary snapshot.
+ *
+ * Usage:
+ * <pre>
+ *   java main.SnapshotConverter csv-to-snapshot
+ *   java main.SnapshotConverter snapshot-to-csv
+ * </pre>
+ * Pending journal entries are folded into the output. Once a snapshot
+ * exists, the application reads it at startup unless a CSV file has been
+ * edited since, and keeps it up to date on every save.
+ */
+public class SnapshotConverter {
+
+    /**
+     * Entry point for the converter.
+     * @param args the conversion direction
+     */
+    public static void main(String[] args) {
+        IFileHandler.Format from, to;
+        if (args.length == 1 && args[0].equals("csv-to-snapshot")) {
+            from = IFileHandler.Format.CSV;
+            to = IFileHandler.Format.SNAPSHOT;
+        } else if (args.length == 1 && args[0].equals("snapshot-to-csv")) {
+            from = IFileHandler.Format.SNAPSHOT;
+            to = IFileHandler.Format.CSV;
+        } else {
+            System.err.println("Usage: java main.SnapshotConverter csv-to-snapshot | snapshot-to-csv");
+            return;
+        }
+
+        IDataRepo repo = DataRepo.getInstance();
+        IFileHandler fileHandler = new FileHandler();
+        if (!fileHandler.loadAllData(repo, from)) {
+            System.err.println("Conversion aborted: data could not be loaded");
+            return;
+        }
+        boolean converted = fileHandler.exportData(repo, to);
+        fileHandler.close(repo);
+        System.out.println(converted ? "Conversion complete" : "Conversion failed");
+    }
+}